@@ -27,7 +27,10 @@
 
 package dev.alshakib.rvcompat.example;
 
+import android.content.Intent;
 import android.os.Bundle;
+import android.view.Menu;
+import android.view.MenuItem;
 import android.view.View;
 import android.widget.Toast;
 
@@ -67,6 +70,21 @@ public class MainActivity extends AppCompatActivity
         countryListAdapterCompat.setOnItemLongClickListener(this);
     }
 
+    @Override
+    public boolean onCreateOptionsMenu(Menu menu) {
+        getMenuInflater().inflate(R.menu.menu_main, menu);
+        return true;
+    }
+
+    @Override
+    public boolean onOptionsItemSelected(@NonNull MenuItem item) {
+        if (item.getItemId() == R.id.action_paging_sample) {
+            startActivity(new Intent(this, PagingActivity.class));
+            return true;
+        }
+        return super.onOptionsItemSelected(item);
+    }
+
     private List<Country> fetchData() {
         List<Country> countryList = new ArrayList<>();
         String[] dataSet = getResources().getStringArray(R.array.countries_array);
@@ -0,0 +1,107 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Al Shakib (shakib@alshakib.dev)
+ *
+ * This file is part of Recycler View Compat
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.alshakib.rvcompat.example;
+
+import android.os.Bundle;
+
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.lifecycle.Observer;
+import androidx.paging.Pager;
+import androidx.paging.PagingConfig;
+import androidx.paging.PagingData;
+import androidx.paging.PagingLiveData;
+import androidx.paging.PagingSource;
+import androidx.recyclerview.widget.LinearLayoutManager;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import dev.alshakib.rvcompat.example.adapter.CountryPagingDataAdapterCompat;
+import dev.alshakib.rvcompat.example.data.model.Country;
+import dev.alshakib.rvcompat.example.data.source.FakeCountryPagingSource;
+import dev.alshakib.rvcompat.example.databinding.ActivityMainBinding;
+import kotlin.jvm.functions.Function0;
+
+// Pages a million synthetic rows through FakeCountryPagingSource. Dragging the fast scroll thumb
+// far enough refreshes at the landing position instead of loading every page on the way
+public class PagingActivity extends AppCompatActivity {
+    private static final int ITEM_COUNT = 1_000_000;
+    private static final int PAGE_SIZE = 50;
+    private static final int JUMP_THRESHOLD = PAGE_SIZE * 4;
+
+    private ActivityMainBinding viewBinding;
+    private ExecutorService loadExecutor;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        viewBinding = ActivityMainBinding.inflate(getLayoutInflater());
+        setContentView(viewBinding.getRoot());
+        setSupportActionBar(viewBinding.materialToolbar);
+        if (getSupportActionBar() != null) {
+            getSupportActionBar().setDisplayHomeAsUpEnabled(true);
+        }
+
+        viewBinding.recyclerView.setHasFixedSize(true);
+        viewBinding.recyclerView.setLayoutManager(new LinearLayoutManager(this));
+
+        final CountryPagingDataAdapterCompat countryPagingDataAdapterCompat = new CountryPagingDataAdapterCompat();
+        viewBinding.recyclerView.setAdapter(countryPagingDataAdapterCompat);
+
+        loadExecutor = Executors.newSingleThreadExecutor();
+        final String[] names = getResources().getStringArray(R.array.countries_array);
+        PagingConfig pagingConfig = new PagingConfig(PAGE_SIZE, PAGE_SIZE, true, PAGE_SIZE * 3,
+                PagingConfig.MAX_SIZE_UNBOUNDED, JUMP_THRESHOLD);
+        Pager<Integer, Country> pager = new Pager<>(pagingConfig,
+                new Function0<PagingSource<Integer, Country>>() {
+                    @Override
+                    public PagingSource<Integer, Country> invoke() {
+                        return new FakeCountryPagingSource(names, ITEM_COUNT, loadExecutor);
+                    }
+                });
+        PagingLiveData.cachedIn(PagingLiveData.getLiveData(pager), getLifecycle())
+                .observe(this, new Observer<PagingData<Country>>() {
+                    @Override
+                    public void onChanged(PagingData<Country> pagingData) {
+                        countryPagingDataAdapterCompat.submitData(getLifecycle(), pagingData);
+                    }
+                });
+    }
+
+    @Override
+    public boolean onSupportNavigateUp() {
+        finish();
+        return true;
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        loadExecutor.shutdown();
+    }
+}
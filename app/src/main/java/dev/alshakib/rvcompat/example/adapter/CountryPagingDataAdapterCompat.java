@@ -0,0 +1,89 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Al Shakib (shakib@alshakib.dev)
+ *
+ * This file is part of Recycler View Compat
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.alshakib.rvcompat.example.adapter;
+
+import android.graphics.drawable.Drawable;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+
+import dev.alshakib.dtext.DText;
+import dev.alshakib.rvcompat.adapter.PagingDataAdapterCompat;
+import dev.alshakib.rvcompat.example.R;
+import dev.alshakib.rvcompat.example.data.model.Country;
+import dev.alshakib.rvcompat.example.diff.CountryDiffUtilItemCallback;
+import dev.alshakib.rvcompat.example.viewholder.ListOneLineWithImageViewHolderCompat;
+import dev.alshakib.rvcompat.view.FastScrollRecyclerView;
+
+public class CountryPagingDataAdapterCompat extends PagingDataAdapterCompat<Country, ListOneLineWithImageViewHolderCompat>
+        implements FastScrollRecyclerView.OnSectionName {
+
+    public CountryPagingDataAdapterCompat() {
+        super(new CountryDiffUtilItemCallback());
+    }
+
+    @NonNull
+    @Override
+    public ListOneLineWithImageViewHolderCompat onCreateViewHolderCompat(@NonNull ViewGroup parent, int viewType) {
+        return new ListOneLineWithImageViewHolderCompat(inflateView(R.layout.list_one_line_with_image, parent, false));
+    }
+
+    @Override
+    public void onBindViewHolderCompat(@NonNull ListOneLineWithImageViewHolderCompat holder, int position) {
+        // getItemCompat keeps a thumb drag from loading every page it passes
+        Country country = getItemCompat(position);
+        if (country != null) {
+            holder.getViewBinding().titleTextView.setText(country.getName());
+            holder.getViewBinding().thumbnailImageView.setImageDrawable(createDrawable(country.getName()));
+        } else {
+            holder.getViewBinding().titleTextView.setText(null);
+            holder.getViewBinding().thumbnailImageView.setImageDrawable(null);
+        }
+    }
+
+    private Drawable createDrawable(String s) {
+        return new DText.Builder()
+                .setText(s)
+                .boldText()
+                .randomBackgroundColor()
+                .firstCharOnly()
+                .alphaNumOnly()
+                .toUpperCase()
+                .drawAsRound()
+                .build();
+    }
+
+    @Override
+    public String getSectionName(int position) {
+        Country country = getItemCompat(position);
+        if (country != null) {
+            return String.valueOf(country.getName().toUpperCase().charAt(0));
+        }
+        return null;
+    }
+}
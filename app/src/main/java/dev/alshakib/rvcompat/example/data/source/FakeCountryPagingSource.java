@@ -0,0 +1,107 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Al Shakib (shakib@alshakib.dev)
+ *
+ * This file is part of Recycler View Compat
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.alshakib.rvcompat.example.data.source;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.paging.ListenableFuturePagingSource;
+import androidx.paging.PagingState;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListenableFutureTask;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+
+import dev.alshakib.rvcompat.example.data.model.Country;
+
+// Serves a synthetic remote list of any size. Paired with a PagingConfig jumpThreshold, a fast
+// scroll to a far position refreshes there instead of paging through every page in between
+public class FakeCountryPagingSource extends ListenableFuturePagingSource<Integer, Country> {
+    private final String[] names;
+    private final int itemCount;
+    private final Executor executor;
+
+    public FakeCountryPagingSource(@NonNull String[] names, int itemCount, @NonNull Executor executor) {
+        this.names = names;
+        this.itemCount = itemCount;
+        this.executor = executor;
+    }
+
+    @Override
+    public boolean getJumpingSupported() {
+        return true;
+    }
+
+    @NonNull
+    @Override
+    public ListenableFuture<LoadResult<Integer, Country>> loadFuture(@NonNull final LoadParams<Integer> params) {
+        ListenableFutureTask<LoadResult<Integer, Country>> task = ListenableFutureTask.create(
+                new Callable<LoadResult<Integer, Country>>() {
+                    @Override
+                    public LoadResult<Integer, Country> call() {
+                        return load(params);
+                    }
+                });
+        executor.execute(task);
+        return task;
+    }
+
+    @Nullable
+    @Override
+    public Integer getRefreshKey(@NonNull PagingState<Integer, Country> state) {
+        Integer anchorPosition = state.getAnchorPosition();
+        if (anchorPosition == null) {
+            return null;
+        }
+        return Math.max(0, anchorPosition - state.getConfig().initialLoadSize / 2);
+    }
+
+    private LoadResult<Integer, Country> load(@NonNull LoadParams<Integer> params) {
+        int key = params.getKey() != null ? params.getKey() : 0;
+        int start;
+        int end;
+        if (params instanceof LoadParams.Prepend) {
+            end = Math.min(itemCount, Math.max(0, key));
+            start = Math.max(0, end - params.getLoadSize());
+        } else {
+            start = Math.min(itemCount, Math.max(0, key));
+            end = Math.min(itemCount, start + params.getLoadSize());
+        }
+        List<Country> countries = new ArrayList<>(end - start);
+        for (int i = start; i < end; ++i) {
+            countries.add(new Country(i, names[i % names.length]));
+        }
+        return new LoadResult.Page<>(countries,
+                start > 0 ? start : null,
+                end < itemCount ? end : null,
+                start, itemCount - end);
+    }
+}
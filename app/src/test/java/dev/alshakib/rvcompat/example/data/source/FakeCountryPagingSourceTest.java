@@ -0,0 +1,122 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Al Shakib (shakib@alshakib.dev)
+ *
+ * This file is part of Recycler View Compat
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.alshakib.rvcompat.example.data.source;
+
+import androidx.paging.PagingConfig;
+import androidx.paging.PagingSource;
+import androidx.paging.PagingState;
+
+import com.google.common.util.concurrent.MoreExecutors;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import dev.alshakib.rvcompat.example.data.model.Country;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class FakeCountryPagingSourceTest {
+    private static final String[] NAMES = { "Albania", "Brazil", "Chile" };
+    private static final int ITEM_COUNT = 1_000_000;
+    private static final int LOAD_SIZE = 50;
+
+    private final FakeCountryPagingSource pagingSource =
+            new FakeCountryPagingSource(NAMES, ITEM_COUNT, MoreExecutors.directExecutor());
+
+    @Test
+    public void initialRefreshLoadsFirstPage() throws Exception {
+        PagingSource.LoadResult.Page<Integer, Country> page =
+                load(new PagingSource.LoadParams.Refresh<Integer>(null, LOAD_SIZE, true));
+        assertIds(page.getData(), 0, LOAD_SIZE);
+        assertNull(page.getPrevKey());
+        assertEquals(Integer.valueOf(LOAD_SIZE), page.getNextKey());
+        assertEquals(0, page.getItemsBefore());
+        assertEquals(ITEM_COUNT - LOAD_SIZE, page.getItemsAfter());
+    }
+
+    @Test
+    public void jumpRefreshLoadsAroundFarKey() throws Exception {
+        assertTrue(pagingSource.getJumpingSupported());
+        int key = ITEM_COUNT / 2;
+        PagingSource.LoadResult.Page<Integer, Country> page =
+                load(new PagingSource.LoadParams.Refresh<>(key, LOAD_SIZE, true));
+        assertIds(page.getData(), key, key + LOAD_SIZE);
+        assertEquals(Integer.valueOf(key), page.getPrevKey());
+        assertEquals(Integer.valueOf(key + LOAD_SIZE), page.getNextKey());
+        assertEquals(key, page.getItemsBefore());
+        assertEquals(ITEM_COUNT - key - LOAD_SIZE, page.getItemsAfter());
+    }
+
+    @Test
+    public void prependLoadsRowsBeforeKey() throws Exception {
+        PagingSource.LoadResult.Page<Integer, Country> page =
+                load(new PagingSource.LoadParams.Prepend<>(LOAD_SIZE + 10, LOAD_SIZE, true));
+        assertIds(page.getData(), 10, LOAD_SIZE + 10);
+        assertEquals(Integer.valueOf(10), page.getPrevKey());
+        assertEquals(Integer.valueOf(LOAD_SIZE + 10), page.getNextKey());
+    }
+
+    @Test
+    public void appendClampsAtEnd() throws Exception {
+        int key = ITEM_COUNT - 10;
+        PagingSource.LoadResult.Page<Integer, Country> page =
+                load(new PagingSource.LoadParams.Append<>(key, LOAD_SIZE, true));
+        assertIds(page.getData(), key, ITEM_COUNT);
+        assertNull(page.getNextKey());
+        assertEquals(0, page.getItemsAfter());
+    }
+
+    @Test
+    public void refreshKeyCentersOnAnchor() {
+        PagingConfig pagingConfig = new PagingConfig(LOAD_SIZE);
+        List<PagingSource.LoadResult.Page<Integer, Country>> pages = Collections.emptyList();
+        assertNull(pagingSource.getRefreshKey(new PagingState<>(pages, null, pagingConfig, 0)));
+        assertEquals(Integer.valueOf(1000 - pagingConfig.initialLoadSize / 2),
+                pagingSource.getRefreshKey(new PagingState<>(pages, 1000, pagingConfig, 0)));
+        assertEquals(Integer.valueOf(0),
+                pagingSource.getRefreshKey(new PagingState<>(pages, 10, pagingConfig, 0)));
+    }
+
+    private PagingSource.LoadResult.Page<Integer, Country> load(PagingSource.LoadParams<Integer> params)
+            throws Exception {
+        return (PagingSource.LoadResult.Page<Integer, Country>) pagingSource.loadFuture(params).get();
+    }
+
+    private static void assertIds(List<Country> countries, int start, int end) {
+        assertEquals(end - start, countries.size());
+        for (int i = start; i < end; ++i) {
+            Country country = countries.get(i - start);
+            assertEquals(i, country.getId());
+            assertEquals(NAMES[i % NAMES.length], country.getName());
+        }
+    }
+}
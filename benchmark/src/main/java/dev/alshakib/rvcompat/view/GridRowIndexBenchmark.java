@@ -0,0 +1,115 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Al Shakib (shakib@alshakib.dev)
+ *
+ * This file is part of Recycler View Compat
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.alshakib.rvcompat.view;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class GridRowIndexBenchmark {
+    private static final int PROBE_COUNT = 1024;
+    private static final int SPAN_COUNT = 3;
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int rowCount;
+
+    // uniform: one span per item, variable: a full width header every few items
+    @Param({"uniform", "variable"})
+    public String spans;
+
+    private GridRowIndex gridRowIndex;
+    private GridRowIndex.SpanSizes spanSizes;
+    private int[] probePositions;
+    private int probe;
+
+    @Setup
+    public void setUp() {
+        final boolean isUniform = "uniform".equals(this.spans);
+        this.spanSizes = new GridRowIndex.SpanSizes() {
+            @Override
+            public int getSpanSize(int position) {
+                return isUniform || position % 7 != 0 ? 1 : SPAN_COUNT;
+            }
+        };
+        this.gridRowIndex = new GridRowIndex();
+        this.gridRowIndex.extend(this.rowCount, SPAN_COUNT, this.spanSizes);
+
+        Random random = new Random(42);
+        this.probePositions = new int[PROBE_COUNT];
+        for (int i = 0; i < PROBE_COUNT; ++i) {
+            this.probePositions[i] = random.nextInt(this.rowCount);
+        }
+    }
+
+    @Benchmark
+    public int getRow() {
+        return this.gridRowIndex.getRow(nextPosition());
+    }
+
+    // Invalidation: items appended at the end, only the trailing rows get laid out again
+
+    @Benchmark
+    public int itemsAppended() {
+        this.gridRowIndex.truncate(this.rowCount - 16);
+        this.gridRowIndex.extend(this.rowCount, SPAN_COUNT, this.spanSizes);
+        return this.gridRowIndex.getRowCount();
+    }
+
+    // Invalidation: an item changed somewhere in the list, every row after it is laid out again
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Measurement(iterations = 20)
+    public int itemChanged() {
+        this.gridRowIndex.truncate(nextPosition());
+        this.gridRowIndex.extend(this.rowCount, SPAN_COUNT, this.spanSizes);
+        return this.gridRowIndex.getRowCount();
+    }
+
+    private int nextPosition() {
+        return this.probePositions[this.probe++ & (PROBE_COUNT - 1)];
+    }
+}
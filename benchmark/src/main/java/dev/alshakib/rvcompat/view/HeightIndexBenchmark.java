@@ -0,0 +1,218 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Al Shakib (shakib@alshakib.dev)
+ *
+ * This file is part of Recycler View Compat
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.alshakib.rvcompat.view;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class HeightIndexBenchmark {
+    private static final int PROBE_COUNT = 1024;
+    private static final int[] VIEW_TYPE_HEIGHTS = {48, 72, 96, 160};
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int rowCount;
+
+    // uniform: one view type, variable: four view types in runs of 1 to 8 rows
+    @Param({"uniform", "variable"})
+    public String heights;
+
+    private int[] rowHeights;
+    private int[] probeOffsets;
+    private int[] probePositions;
+    private int probe;
+
+    private FenwickHeightIndex fenwickHeightIndex;
+    private ViewTypeHeightIndex viewTypeHeightIndex;
+    private PrefixSumHeightIndex prefixSumHeightIndex;
+    private PrefixSumHeightIndex.Heights heightSource;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        this.rowHeights = new int[this.rowCount];
+        boolean isUniform = "uniform".equals(this.heights);
+        for (int i = 0; i < this.rowCount; ) {
+            int height = isUniform ? VIEW_TYPE_HEIGHTS[0] : VIEW_TYPE_HEIGHTS[random.nextInt(VIEW_TYPE_HEIGHTS.length)];
+            int run = isUniform ? this.rowCount : 1 + random.nextInt(8);
+            for (int end = Math.min(this.rowCount, i + run); i < end; ++i) {
+                this.rowHeights[i] = height;
+            }
+        }
+        this.heightSource = new PrefixSumHeightIndex.Heights() {
+            @Override
+            public int getHeight(int position) {
+                return HeightIndexBenchmark.this.rowHeights[position];
+            }
+        };
+
+        this.fenwickHeightIndex = new FenwickHeightIndex();
+        fillFenwick();
+        this.viewTypeHeightIndex = new ViewTypeHeightIndex();
+        for (int height : this.rowHeights) {
+            this.viewTypeHeightIndex.append(height);
+        }
+        this.prefixSumHeightIndex = PrefixSumHeightIndex.build(this.rowCount, this.heightSource,
+                ForkJoinPool.commonPool(), new AtomicBoolean());
+
+        int totalHeight = this.fenwickHeightIndex.getTotalHeight();
+        this.probeOffsets = new int[PROBE_COUNT];
+        this.probePositions = new int[PROBE_COUNT];
+        for (int i = 0; i < PROBE_COUNT; ++i) {
+            this.probeOffsets[i] = random.nextInt(totalHeight);
+            this.probePositions[i] = random.nextInt(this.rowCount);
+        }
+    }
+
+    // Thumb drag: offset to adapter position on every touch event
+
+    @Benchmark
+    public int fenwickFindIndex() {
+        return this.fenwickHeightIndex.findIndex(nextOffset());
+    }
+
+    @Benchmark
+    public int viewTypeFindIndex() {
+        return this.viewTypeHeightIndex.findIndex(nextOffset());
+    }
+
+    @Benchmark
+    public int prefixSumFindIndex() {
+        return this.prefixSumHeightIndex.findIndex(nextOffset());
+    }
+
+    // Thumb placement: adapter position to scrolled height on every scroll frame
+
+    @Benchmark
+    public int fenwickGetOffset() {
+        return this.fenwickHeightIndex.getOffset(nextPosition());
+    }
+
+    @Benchmark
+    public int viewTypeGetOffset() {
+        return this.viewTypeHeightIndex.getOffset(nextPosition());
+    }
+
+    // Invalidation: a single item changed, only its height gets measured again
+
+    @Benchmark
+    public int fenwickItemChanged() {
+        int position = nextPosition();
+        int height = this.fenwickHeightIndex.getHeight(position);
+        this.fenwickHeightIndex.setHeight(position, height == VIEW_TYPE_HEIGHTS[0] ? VIEW_TYPE_HEIGHTS[1] : VIEW_TYPE_HEIGHTS[0]);
+        return this.fenwickHeightIndex.findIndex(nextOffset());
+    }
+
+    // Invalidation: an item got inserted and removed again, the tree rebuilds on the next query
+
+    @Benchmark
+    public int fenwickItemInsertedAndRemoved() {
+        int position = nextPosition();
+        this.fenwickHeightIndex.insert(position, 1);
+        this.fenwickHeightIndex.setHeight(position, VIEW_TYPE_HEIGHTS[1]);
+        int index = this.fenwickHeightIndex.findIndex(nextOffset());
+        this.fenwickHeightIndex.remove(position, 1);
+        return index;
+    }
+
+    // Invalidation: an item dragged a few rows away, shifting only the rows in between
+
+    @Benchmark
+    public int fenwickItemMoved() {
+        int from = nextPosition();
+        int to = Math.min(this.rowCount - 1, from + (from & 63));
+        this.fenwickHeightIndex.move(from, to, 1);
+        return this.fenwickHeightIndex.findIndex(nextOffset());
+    }
+
+    // Invalidation: the whole data set got replaced
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Measurement(iterations = 20)
+    public int fenwickDataSetChanged() {
+        fillFenwick();
+        return this.fenwickHeightIndex.getTotalHeight();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Measurement(iterations = 20)
+    public int viewTypeDataSetChanged() {
+        this.viewTypeHeightIndex.clear();
+        for (int height : this.rowHeights) {
+            this.viewTypeHeightIndex.append(height);
+        }
+        return this.viewTypeHeightIndex.getTotalHeight();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Measurement(iterations = 20)
+    public int prefixSumDataSetChanged() {
+        return PrefixSumHeightIndex.build(this.rowCount, this.heightSource,
+                ForkJoinPool.commonPool(), new AtomicBoolean()).getTotalHeight();
+    }
+
+    private void fillFenwick() {
+        this.fenwickHeightIndex.reset(this.rowCount);
+        for (int i = 0; i < this.rowCount; ++i) {
+            this.fenwickHeightIndex.setHeight(i, this.rowHeights[i]);
+        }
+    }
+
+    private int nextOffset() {
+        return this.probeOffsets[this.probe++ & (PROBE_COUNT - 1)];
+    }
+
+    private int nextPosition() {
+        return this.probePositions[this.probe++ & (PROBE_COUNT - 1)];
+    }
+}
@@ -34,6 +34,8 @@ import android.view.ViewGroup;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import java.util.List;
+
 import dev.alshakib.rvcompat.viewholder.ViewHolderCompat;
 
 interface AdapterCompat<VH> {
@@ -43,10 +45,17 @@ interface AdapterCompat<VH> {
         return LayoutInflater.from(root.getContext()).inflate(resource, root, attachToRoot);
     }
 
+    // Runs on a background thread for holders requested through preInflateViewHolders, so it must
+    // be thread-safe then: inflate and set up the holder only, without touching adapter state that
+    // the main thread mutates. Views that need a looper are retried on the main thread
     @NonNull
     VH onCreateViewHolderCompat(@NonNull ViewGroup parent, int viewType);
     void onBindViewHolderCompat(@NonNull VH holder, int position);
 
+    default void onBindViewHolderCompat(@NonNull VH holder, int position, @NonNull List<Object> payloads) {
+        onBindViewHolderCompat(holder, position);
+    }
+
     @Nullable
     ViewHolderCompat.OnItemClickListener getOnItemClickListener();
     void setOnItemClickListener(@Nullable ViewHolderCompat.OnItemClickListener onItemClickListener);
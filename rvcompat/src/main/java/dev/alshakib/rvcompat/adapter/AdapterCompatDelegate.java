@@ -0,0 +1,126 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Al Shakib (shakib@alshakib.dev)
+ *
+ * This file is part of Recycler View Compat
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+
+package dev.alshakib.rvcompat.adapter;
+
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.List;
+
+import dev.alshakib.rvcompat.viewholder.ViewHolderCompat;
+
+// Holder creation and binding shared by the compat adapters, which extend different base adapters.
+// Listeners are read back through the adapter so subclasses overriding the getters still apply
+final class AdapterCompatDelegate<VH extends ViewHolderCompat> {
+    private final RecyclerView.Adapter<VH> adapter;
+    private final AdapterCompat<VH> adapterCompat;
+
+    private ViewHolderCompat.OnItemClickListener onItemClickListener;
+    private ViewHolderCompat.OnItemLongClickListener onItemLongClickListener;
+    private AdapterTimings adapterTimings;
+
+    <A extends RecyclerView.Adapter<VH> & AdapterCompat<VH>> AdapterCompatDelegate(@NonNull A adapter) {
+        this.adapter = adapter;
+        this.adapterCompat = adapter;
+    }
+
+    @NonNull
+    VH onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        AdapterTimings adapterTimings = this.adapterTimings;
+        long startNanos = adapterTimings != null ? System.nanoTime() : 0;
+        VH viewHolderCompat = adapterCompat.onCreateViewHolderCompat(parent, viewType);
+        viewHolderCompat.setOnItemClickListener(adapterCompat.getOnItemClickListener());
+        viewHolderCompat.setOnItemLongClickListener(adapterCompat.getOnItemLongClickListener());
+        if (adapterTimings != null) {
+            adapterTimings.recordCreate(viewType, System.nanoTime() - startNanos);
+        }
+        return viewHolderCompat;
+    }
+
+    void onBindViewHolder(@NonNull VH holder, int position) {
+        // Holders from a shared pool may still carry another adapter's listeners
+        holder.setOnItemClickListener(adapterCompat.getOnItemClickListener());
+        holder.setOnItemLongClickListener(adapterCompat.getOnItemLongClickListener());
+        adapterCompat.onBindViewHolderCompat(holder, position);
+    }
+
+    void onBindViewHolder(@NonNull VH holder, int position, @NonNull List<Object> payloads) {
+        AdapterTimings adapterTimings = this.adapterTimings;
+        long startNanos = adapterTimings != null ? System.nanoTime() : 0;
+        if (payloads.isEmpty()) {
+            // Full binds still go through the two argument overload, subclasses may override it
+            adapter.onBindViewHolder(holder, position);
+        } else {
+            holder.setOnItemClickListener(adapterCompat.getOnItemClickListener());
+            holder.setOnItemLongClickListener(adapterCompat.getOnItemLongClickListener());
+            adapterCompat.onBindViewHolderCompat(holder, position, payloads);
+        }
+        if (adapterTimings != null) {
+            adapterTimings.recordBind(holder.getItemViewType(), System.nanoTime() - startNanos);
+        }
+    }
+
+    @Nullable
+    AdapterTimings getAdapterTimings() {
+        return adapterTimings;
+    }
+
+    void setAdapterTimingsEnabled(boolean enabled) {
+        if (!enabled) {
+            adapterTimings = null;
+        } else if (adapterTimings == null) {
+            adapterTimings = new AdapterTimings();
+        }
+    }
+
+    void preInflateViewHolders(@NonNull RecyclerView recyclerView, int viewType, int count) {
+        ViewHolderPreInflater.preInflate(adapter, recyclerView, viewType, count);
+    }
+
+    @Nullable
+    ViewHolderCompat.OnItemClickListener getOnItemClickListener() {
+        return onItemClickListener;
+    }
+
+    void setOnItemClickListener(@Nullable ViewHolderCompat.OnItemClickListener onItemClickListener) {
+        this.onItemClickListener = onItemClickListener;
+    }
+
+    @Nullable
+    ViewHolderCompat.OnItemLongClickListener getOnItemLongClickListener() {
+        return onItemLongClickListener;
+    }
+
+    void setOnItemLongClickListener(@Nullable ViewHolderCompat.OnItemLongClickListener onItemLongClickListener) {
+        this.onItemLongClickListener = onItemLongClickListener;
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Al Shakib (shakib@alshakib.dev)
+ *
+ * This file is part of Recycler View Compat
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.alshakib.rvcompat.adapter;
+
+import androidx.annotation.NonNull;
+
+import java.util.Arrays;
+
+public final class AdapterTimings {
+    // Four linear sub-buckets per power of two keep percentiles within 25% of the real value
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int EXACT_BUCKET_COUNT = SUB_BUCKET_COUNT * 2;
+    private static final int BUCKET_COUNT = 160;
+
+    private int[] viewTypes;
+    private int viewTypeCount;
+    private long[] createBuckets;
+    private long[] bindBuckets;
+    private long[] createTotalNanos;
+    private long[] bindTotalNanos;
+
+    AdapterTimings() {
+        reset();
+    }
+
+    public synchronized void reset() {
+        viewTypes = new int[4];
+        viewTypeCount = 0;
+        createBuckets = new long[viewTypes.length * BUCKET_COUNT];
+        bindBuckets = new long[viewTypes.length * BUCKET_COUNT];
+        createTotalNanos = new long[viewTypes.length];
+        bindTotalNanos = new long[viewTypes.length];
+    }
+
+    @NonNull
+    public synchronized Snapshot snapshot() {
+        return new Snapshot(Arrays.copyOf(viewTypes, viewTypeCount),
+                Arrays.copyOf(createBuckets, viewTypeCount * BUCKET_COUNT),
+                Arrays.copyOf(bindBuckets, viewTypeCount * BUCKET_COUNT),
+                Arrays.copyOf(createTotalNanos, viewTypeCount),
+                Arrays.copyOf(bindTotalNanos, viewTypeCount));
+    }
+
+    synchronized void recordCreate(int viewType, long nanos) {
+        int slot = getSlot(viewType);
+        ++createBuckets[slot * BUCKET_COUNT + getBucket(nanos)];
+        createTotalNanos[slot] += nanos;
+    }
+
+    synchronized void recordBind(int viewType, long nanos) {
+        int slot = getSlot(viewType);
+        ++bindBuckets[slot * BUCKET_COUNT + getBucket(nanos)];
+        bindTotalNanos[slot] += nanos;
+    }
+
+    private int getSlot(int viewType) {
+        for (int i = 0; i < viewTypeCount; ++i) {
+            if (viewTypes[i] == viewType) {
+                return i;
+            }
+        }
+        if (viewTypeCount == viewTypes.length) {
+            int capacity = viewTypes.length * 2;
+            viewTypes = Arrays.copyOf(viewTypes, capacity);
+            createBuckets = Arrays.copyOf(createBuckets, capacity * BUCKET_COUNT);
+            bindBuckets = Arrays.copyOf(bindBuckets, capacity * BUCKET_COUNT);
+            createTotalNanos = Arrays.copyOf(createTotalNanos, capacity);
+            bindTotalNanos = Arrays.copyOf(bindTotalNanos, capacity);
+        }
+        viewTypes[viewTypeCount] = viewType;
+        return viewTypeCount++;
+    }
+
+    private static int getBucket(long nanos) {
+        if (nanos < EXACT_BUCKET_COUNT) {
+            return (int) Math.max(0, nanos);
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+        return Math.min(BUCKET_COUNT - 1, (exponent - 1) * SUB_BUCKET_COUNT + subBucket);
+    }
+
+    private static long getBucketUpperBound(int bucket) {
+        if (bucket < EXACT_BUCKET_COUNT) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKET_COUNT + 1;
+        int subBucket = bucket % SUB_BUCKET_COUNT;
+        return ((long) (SUB_BUCKET_COUNT + subBucket + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+
+    public static final class Snapshot {
+        private final int[] viewTypes;
+        private final long[] createBuckets;
+        private final long[] bindBuckets;
+        private final long[] createTotalNanos;
+        private final long[] bindTotalNanos;
+        private final long[] createCounts;
+        private final long[] bindCounts;
+
+        private Snapshot(int[] viewTypes, long[] createBuckets, long[] bindBuckets,
+                         long[] createTotalNanos, long[] bindTotalNanos) {
+            this.viewTypes = viewTypes;
+            this.createBuckets = createBuckets;
+            this.bindBuckets = bindBuckets;
+            this.createTotalNanos = createTotalNanos;
+            this.bindTotalNanos = bindTotalNanos;
+            this.createCounts = sumBuckets(createBuckets, viewTypes.length);
+            this.bindCounts = sumBuckets(bindBuckets, viewTypes.length);
+        }
+
+        public int getViewTypeCount() {
+            return viewTypes.length;
+        }
+
+        public int getViewType(int index) {
+            return viewTypes[index];
+        }
+
+        public long getCreateCount(int index) {
+            return createCounts[index];
+        }
+
+        public long getBindCount(int index) {
+            return bindCounts[index];
+        }
+
+        public long getCreateMeanNanos(int index) {
+            return createCounts[index] == 0 ? 0 : createTotalNanos[index] / createCounts[index];
+        }
+
+        public long getBindMeanNanos(int index) {
+            return bindCounts[index] == 0 ? 0 : bindTotalNanos[index] / bindCounts[index];
+        }
+
+        public long getCreatePercentileNanos(int index, double percentile) {
+            return getPercentile(createBuckets, index, createCounts[index], percentile);
+        }
+
+        public long getBindPercentileNanos(int index, double percentile) {
+            return getPercentile(bindBuckets, index, bindCounts[index], percentile);
+        }
+
+        private static long getPercentile(long[] buckets, int index, long count, double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(count * Math.max(0, Math.min(100, percentile)) / 100));
+            long seen = 0;
+            int offset = index * BUCKET_COUNT;
+            for (int bucket = 0; bucket < BUCKET_COUNT; ++bucket) {
+                seen += buckets[offset + bucket];
+                if (seen >= rank) {
+                    return getBucketUpperBound(bucket);
+                }
+            }
+            return getBucketUpperBound(BUCKET_COUNT - 1);
+        }
+
+        private static long[] sumBuckets(long[] buckets, int viewTypeCount) {
+            long[] counts = new long[viewTypeCount];
+            for (int i = 0; i < viewTypeCount; ++i) {
+                for (int bucket = 0; bucket < BUCKET_COUNT; ++bucket) {
+                    counts[i] += buckets[i * BUCKET_COUNT + bucket];
+                }
+            }
+            return counts;
+        }
+    }
+}
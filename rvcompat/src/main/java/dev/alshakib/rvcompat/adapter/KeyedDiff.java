@@ -0,0 +1,256 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Al Shakib (shakib@alshakib.dev)
+ *
+ * This file is part of Recycler View Compat
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.alshakib.rvcompat.adapter;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.BatchingListUpdateCallback;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListUpdateCallback;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+final class KeyedDiff {
+    private static final int OP_INSERT = 0;
+    private static final int OP_REMOVE = 1;
+    private static final int OP_MOVE = 2;
+    private static final int OP_CHANGE = 3;
+
+    private int[] ops;
+    private int opCount;
+    private final List<Object> payloads;
+
+    private KeyedDiff() {
+        this.ops = new int[48];
+        this.payloads = new ArrayList<>();
+    }
+
+    // Returns null when keys are missing or repeated, callers fall back to DiffUtil then
+    @Nullable
+    static <T> KeyedDiff calculateDiff(@NonNull List<T> oldList, @NonNull List<T> newList,
+                                       @NonNull ListAdapterCompat.KeyExtractor<T> keyExtractor,
+                                       @NonNull DiffUtil.ItemCallback<T> itemCallback) {
+        int oldSize = oldList.size();
+        int newSize = newList.size();
+        Map<Long, Integer> newPositions = new HashMap<>(Math.max(16, newSize * 4 / 3 + 1));
+        for (int i = 0; i < newSize; ++i) {
+            T item = newList.get(i);
+            if (item == null || newPositions.put(keyExtractor.getKey(item), i) != null) {
+                return null;
+            }
+        }
+        int[] newToOld = new int[newSize];
+        Arrays.fill(newToOld, -1);
+        int[] oldToKept = new int[oldSize];
+        int[] kept = new int[oldSize];
+        int keptCount = 0;
+        for (int i = 0; i < oldSize; ++i) {
+            T item = oldList.get(i);
+            if (item == null) {
+                return null;
+            }
+            Integer newPosition = newPositions.get(keyExtractor.getKey(item));
+            if (newPosition == null) {
+                oldToKept[i] = -1;
+                continue;
+            }
+            if (newToOld[newPosition] != -1) {
+                return null;
+            }
+            newToOld[newPosition] = i;
+            oldToKept[i] = keptCount;
+            kept[keptCount++] = newPosition;
+        }
+
+        KeyedDiff diff = new KeyedDiff();
+        for (int i = oldSize - 1; i >= 0; --i) {
+            if (oldToKept[i] == -1) {
+                diff.addOp(OP_REMOVE, i, 1);
+            }
+        }
+        diff.addMoves(kept, keptCount, newToOld, oldToKept);
+        for (int i = 0; i < newSize; ++i) {
+            if (newToOld[i] == -1) {
+                diff.addOp(OP_INSERT, i, 1);
+            }
+        }
+        for (int i = 0; i < newSize; ++i) {
+            if (newToOld[i] == -1) {
+                continue;
+            }
+            T oldItem = oldList.get(newToOld[i]);
+            T newItem = newList.get(i);
+            if (!itemCallback.areContentsTheSame(oldItem, newItem)) {
+                diff.addOp(OP_CHANGE, i, diff.payloads.size());
+                diff.payloads.add(itemCallback.getChangePayload(oldItem, newItem));
+            }
+        }
+        return diff;
+    }
+
+    void dispatchUpdatesTo(@NonNull ListUpdateCallback listUpdateCallback) {
+        BatchingListUpdateCallback batchingCallback = new BatchingListUpdateCallback(listUpdateCallback);
+        for (int i = 0; i < opCount; i += 3) {
+            switch (ops[i]) {
+                case OP_INSERT:
+                    batchingCallback.onInserted(ops[i + 1], ops[i + 2]);
+                    break;
+                case OP_REMOVE:
+                    batchingCallback.onRemoved(ops[i + 1], ops[i + 2]);
+                    break;
+                case OP_MOVE:
+                    batchingCallback.onMoved(ops[i + 1], ops[i + 2]);
+                    break;
+                case OP_CHANGE:
+                    batchingCallback.onChanged(ops[i + 1], 1, payloads.get(ops[i + 2]));
+                    break;
+            }
+        }
+        batchingCallback.dispatchLastEvent();
+    }
+
+    private void addMoves(int[] kept, int keptCount, int[] newToOld, int[] oldToKept) {
+        // Items on the longest increasing run of new positions stay put, everything else moves
+        boolean[] isStable = findLongestIncreasingRun(kept, keptCount);
+        int[] newOrder = new int[keptCount];
+        int count = 0;
+        for (int position : newToOld) {
+            if (position != -1) {
+                newOrder[count++] = oldToKept[position];
+            }
+        }
+        // Each moved item lands right after its predecessor in the new order. Slots lay out every
+        // old place and every landing place in one sequence so a Fenwick tree can count positions.
+        int[] chainStart = new int[keptCount];
+        int[] chainEnd = new int[keptCount];
+        int headEnd = 0;
+        while (headEnd < keptCount && !isStable[newOrder[headEnd]]) {
+            ++headEnd;
+        }
+        for (int t = headEnd; t < keptCount; ) {
+            int anchor = newOrder[t++];
+            chainStart[anchor] = t;
+            while (t < keptCount && !isStable[newOrder[t]]) {
+                ++t;
+            }
+            chainEnd[anchor] = t;
+        }
+        int[] oldSlots = new int[keptCount];
+        int[] newSlots = new int[keptCount];
+        int slotCount = 0;
+        for (int t = 0; t < headEnd; ++t) {
+            newSlots[newOrder[t]] = slotCount++;
+        }
+        for (int k = 0; k < keptCount; ++k) {
+            oldSlots[k] = slotCount++;
+            if (isStable[k]) {
+                for (int t = chainStart[k]; t < chainEnd[k]; ++t) {
+                    newSlots[newOrder[t]] = slotCount++;
+                }
+            }
+        }
+        int[] tree = new int[slotCount + 1];
+        for (int k = 0; k < keptCount; ++k) {
+            tree[oldSlots[k] + 1] = 1;
+        }
+        for (int i = 1; i <= slotCount; ++i) {
+            int parent = i + (i & -i);
+            if (parent <= slotCount) {
+                tree[parent] += tree[i];
+            }
+        }
+        for (int t = 0; t < keptCount; ++t) {
+            int k = newOrder[t];
+            if (isStable[k]) {
+                continue;
+            }
+            int from = countBefore(tree, oldSlots[k]);
+            update(tree, oldSlots[k], -1);
+            int to = countBefore(tree, newSlots[k]);
+            update(tree, newSlots[k], 1);
+            if (from != to) {
+                addOp(OP_MOVE, from, to);
+            }
+        }
+    }
+
+    private void addOp(int op, int first, int second) {
+        if (opCount + 3 > ops.length) {
+            ops = Arrays.copyOf(ops, ops.length * 2);
+        }
+        ops[opCount++] = op;
+        ops[opCount++] = first;
+        ops[opCount++] = second;
+    }
+
+    private static boolean[] findLongestIncreasingRun(int[] values, int count) {
+        int[] tails = new int[count];
+        int[] previous = new int[count];
+        int length = 0;
+        for (int i = 0; i < count; ++i) {
+            int low = 0;
+            int high = length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (values[tails[mid]] < values[i]) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            previous[i] = low > 0 ? tails[low - 1] : -1;
+            tails[low] = i;
+            if (low == length) {
+                ++length;
+            }
+        }
+        boolean[] isInRun = new boolean[count];
+        for (int i = length > 0 ? tails[length - 1] : -1; i != -1; i = previous[i]) {
+            isInRun[i] = true;
+        }
+        return isInRun;
+    }
+
+    private static int countBefore(int[] tree, int slot) {
+        int count = 0;
+        for (int i = slot; i > 0; i -= i & -i) {
+            count += tree[i];
+        }
+        return count;
+    }
+
+    private static void update(int[] tree, int slot, int delta) {
+        for (int i = slot + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+}
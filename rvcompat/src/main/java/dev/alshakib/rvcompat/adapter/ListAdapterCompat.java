@@ -27,64 +27,248 @@
 
 package dev.alshakib.rvcompat.adapter;
 
+import android.view.View;
 import android.view.ViewGroup;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.AdapterListUpdateCallback;
 import androidx.recyclerview.widget.AsyncDifferConfig;
 import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.ListAdapter;
+import androidx.recyclerview.widget.RecyclerView;
 
+import java.util.Collection;
+import java.util.List;
+
+import dev.alshakib.rvcompat.diff.DiffExecutor;
 import dev.alshakib.rvcompat.viewholder.ViewHolderCompat;
 
+// The AsyncListDiffer inside ListAdapter never sees a list. Every ListAdapter method that submits or
+// reads lists is overridden to go through listDiffer instead, ListAdapterCompatTest keeps it that way
 public abstract class ListAdapterCompat<T, VH extends ViewHolderCompat>
         extends ListAdapter<T, VH>
         implements AdapterCompat<VH> {
 
-    private ViewHolderCompat.OnItemClickListener onItemClickListener;
-    private ViewHolderCompat.OnItemLongClickListener onItemLongClickListener;
+    private final AdapterCompatDelegate<VH> adapterCompatDelegate;
+
+    private final DiffExecutor.Client diffExecutorClient;
+    private final View.OnAttachStateChangeListener onAttachStateChangeListener;
+    private final SubmitCoalescer<List<T>> submitCoalescer;
+    private final ListDiffer<T> listDiffer;
+
+    private KeyExtractor<T> keyExtractor;
+    private boolean hasKeyedStableIds;
 
     public ListAdapterCompat(@NonNull AsyncDifferConfig<T> config) {
-        super(config);
+        this(config, null);
     }
 
     public ListAdapterCompat(@NonNull DiffUtil.ItemCallback<T> diffCallback) {
-        super(diffCallback);
+        this(diffCallback, DiffExecutor.getInstance().newClient());
+    }
+
+    private ListAdapterCompat(@NonNull DiffUtil.ItemCallback<T> diffCallback,
+                              @NonNull DiffExecutor.Client diffExecutorClient) {
+        this(new AsyncDifferConfig.Builder<>(diffCallback)
+                .setBackgroundThreadExecutor(diffExecutorClient)
+                .build(), diffExecutorClient);
+    }
+
+    private ListAdapterCompat(@NonNull AsyncDifferConfig<T> config,
+                              @Nullable final DiffExecutor.Client diffExecutorClient) {
+        super(config);
+        this.adapterCompatDelegate = new AdapterCompatDelegate<>(this);
+        this.diffExecutorClient = diffExecutorClient;
+        this.listDiffer = new ListDiffer<>(new AdapterListUpdateCallback(this), config,
+                new ListDiffer.OnCurrentListChangedListener<T>() {
+                    @Override
+                    public void onCurrentListChanged(@NonNull List<T> previousList, @NonNull List<T> currentList) {
+                        ListAdapterCompat.this.onCurrentListChanged(previousList, currentList);
+                    }
+                });
+        this.submitCoalescer = new SubmitCoalescer<>(new SubmitCoalescer.Submitter<List<T>>() {
+            @Override
+            public void submit(@Nullable List<T> list, @NonNull Runnable commitCallback) {
+                listDiffer.submitList(list, commitCallback);
+            }
+        });
+        this.onAttachStateChangeListener = new View.OnAttachStateChangeListener() {
+            @Override
+            public void onViewAttachedToWindow(View v) {
+                if (diffExecutorClient != null) {
+                    diffExecutorClient.setVisible(true);
+                }
+            }
+
+            @Override
+            public void onViewDetachedFromWindow(View v) {
+                if (diffExecutorClient != null) {
+                    diffExecutorClient.setVisible(false);
+                }
+            }
+        };
     }
 
     @NonNull
     @Override
     public VH onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
-        VH viewHolderCompat = onCreateViewHolderCompat(parent, viewType);
-        viewHolderCompat.setOnItemClickListener(getOnItemClickListener());
-        viewHolderCompat.setOnItemLongClickListener(getOnItemLongClickListener());
-        return viewHolderCompat;
+        return adapterCompatDelegate.onCreateViewHolder(parent, viewType);
     }
 
     @Override
     public void onBindViewHolder(@NonNull VH holder, int position) {
-        onBindViewHolderCompat(holder, position);
+        adapterCompatDelegate.onBindViewHolder(holder, position);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull VH holder, int position, @NonNull List<Object> payloads) {
+        adapterCompatDelegate.onBindViewHolder(holder, position, payloads);
+    }
+
+    @Override
+    public void onAttachedToRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onAttachedToRecyclerView(recyclerView);
+        if (diffExecutorClient != null) {
+            recyclerView.addOnAttachStateChangeListener(onAttachStateChangeListener);
+            diffExecutorClient.setVisible(recyclerView.isAttachedToWindow());
+        }
+    }
+
+    @Override
+    public void onDetachedFromRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onDetachedFromRecyclerView(recyclerView);
+        if (diffExecutorClient != null) {
+            recyclerView.removeOnAttachStateChangeListener(onAttachStateChangeListener);
+            diffExecutorClient.setVisible(false);
+        }
+    }
+
+    @Override
+    protected T getItem(int position) {
+        return listDiffer.getCurrentList().get(position);
+    }
+
+    @Override
+    public int getItemCount() {
+        return listDiffer.getCurrentList().size();
+    }
+
+    @NonNull
+    @Override
+    public List<T> getCurrentList() {
+        return listDiffer.getCurrentList();
+    }
+
+    @Override
+    public long getItemId(int position) {
+        if (keyExtractor != null) {
+            T item = getItem(position);
+            return item != null ? keyExtractor.getKey(item) : RecyclerView.NO_ID;
+        }
+        return super.getItemId(position);
+    }
+
+    @Nullable
+    public KeyExtractor<T> getKeyExtractor() {
+        return keyExtractor;
+    }
+
+    // Keys double as stable ids, so the extractor has to be set before the adapter is attached to a
+    // RecyclerView. Stable ids are only turned off again when this method turned them on
+    public void setKeyExtractor(@Nullable KeyExtractor<T> keyExtractor) {
+        if (hasObservers()) {
+            throw new IllegalStateException("setKeyExtractor() must be called before the adapter" +
+                    " is attached to a RecyclerView, keys are used as stable ids");
+        }
+        if (keyExtractor != null && !hasStableIds()) {
+            setHasStableIds(true);
+            hasKeyedStableIds = true;
+        } else if (keyExtractor == null && hasKeyedStableIds) {
+            setHasStableIds(false);
+            hasKeyedStableIds = false;
+        }
+        this.keyExtractor = keyExtractor;
+        listDiffer.setKeyExtractor(keyExtractor);
+    }
+
+    @Override
+    public void submitList(@Nullable List<T> list) {
+        submitList(list, null);
+    }
+
+    @Override
+    public void submitList(@Nullable List<T> list, @Nullable Runnable commitCallback) {
+        submitCoalescer.cancel();
+        listDiffer.submitList(list, commitCallback);
+    }
+
+    public void submitAppend(@NonNull Collection<? extends T> items) {
+        listDiffer.submitAppend(items);
+    }
+
+    public void submitInsert(int position, @NonNull Collection<? extends T> items) {
+        listDiffer.submitInsert(position, items);
+    }
+
+    public void submitRemoveRange(int position, int count) {
+        listDiffer.submitRemoveRange(position, count);
+    }
+
+    public void submitReplace(int position, @NonNull Collection<? extends T> items) {
+        listDiffer.submitReplace(position, items);
+    }
+
+    public void submitListCoalesced(@Nullable List<T> list) {
+        submitCoalescer.submit(list);
+    }
+
+    public void setOnCoalescedCommitListener(@Nullable SubmitCoalescer.OnCoalescedCommitListener onCoalescedCommitListener) {
+        submitCoalescer.setOnCoalescedCommitListener(onCoalescedCommitListener);
+    }
+
+    @Nullable
+    public DiffExecutor.Client getDiffExecutorClient() {
+        return diffExecutorClient;
+    }
+
+    @Nullable
+    public AdapterTimings getAdapterTimings() {
+        return adapterCompatDelegate.getAdapterTimings();
+    }
+
+    public void setAdapterTimingsEnabled(boolean enabled) {
+        adapterCompatDelegate.setAdapterTimingsEnabled(enabled);
+    }
+
+    // Calls onCreateViewHolderCompat off the main thread, see AdapterCompat for its thread-safety contract
+    public void preInflateViewHolders(@NonNull RecyclerView recyclerView, int viewType, int count) {
+        adapterCompatDelegate.preInflateViewHolders(recyclerView, viewType, count);
     }
 
     @Nullable
     @Override
     public ViewHolderCompat.OnItemClickListener getOnItemClickListener() {
-        return onItemClickListener;
+        return adapterCompatDelegate.getOnItemClickListener();
     }
 
     @Override
     public void setOnItemClickListener(@Nullable ViewHolderCompat.OnItemClickListener onItemClickListener) {
-        this.onItemClickListener = onItemClickListener;
+        adapterCompatDelegate.setOnItemClickListener(onItemClickListener);
     }
 
     @Nullable
     @Override
     public ViewHolderCompat.OnItemLongClickListener getOnItemLongClickListener() {
-        return onItemLongClickListener;
+        return adapterCompatDelegate.getOnItemLongClickListener();
     }
 
     @Override
     public void setOnItemLongClickListener(@Nullable ViewHolderCompat.OnItemLongClickListener onItemLongClickListener) {
-        this.onItemLongClickListener = onItemLongClickListener;
+        adapterCompatDelegate.setOnItemLongClickListener(onItemLongClickListener);
+    }
+
+    public interface KeyExtractor<T> {
+        long getKey(@NonNull T item);
     }
 }
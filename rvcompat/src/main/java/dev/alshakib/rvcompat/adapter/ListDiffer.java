@@ -0,0 +1,269 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Al Shakib (shakib@alshakib.dev)
+ *
+ * This file is part of Recycler View Compat
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.alshakib.rvcompat.adapter;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.AsyncDifferConfig;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListUpdateCallback;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+final class ListDiffer<T> {
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+
+    private final ListUpdateCallback listUpdateCallback;
+    private final AsyncDifferConfig<T> config;
+    private final OnCurrentListChangedListener<T> onCurrentListChangedListener;
+
+    private List<T> list;
+    private List<T> readOnlyList;
+    private List<T> pendingList;
+    private Runnable pendingCommitCallback;
+    private int maxScheduledGeneration;
+    private ListAdapterCompat.KeyExtractor<T> keyExtractor;
+
+    ListDiffer(@NonNull ListUpdateCallback listUpdateCallback,
+               @NonNull AsyncDifferConfig<T> config,
+               @NonNull OnCurrentListChangedListener<T> onCurrentListChangedListener) {
+        this.listUpdateCallback = listUpdateCallback;
+        this.config = config;
+        this.onCurrentListChangedListener = onCurrentListChangedListener;
+        this.readOnlyList = Collections.emptyList();
+    }
+
+    void setKeyExtractor(@Nullable ListAdapterCompat.KeyExtractor<T> keyExtractor) {
+        this.keyExtractor = keyExtractor;
+    }
+
+    @NonNull
+    List<T> getCurrentList() {
+        return readOnlyList;
+    }
+
+    void submitList(@Nullable final List<T> newList, @Nullable final Runnable commitCallback) {
+        final int runGeneration = ++maxScheduledGeneration;
+        pendingList = null;
+        pendingCommitCallback = null;
+        if (newList == list) {
+            if (commitCallback != null) {
+                commitCallback.run();
+            }
+            return;
+        }
+        final List<T> previousList = readOnlyList;
+        if (newList == null) {
+            int count = list.size();
+            list = null;
+            readOnlyList = Collections.emptyList();
+            listUpdateCallback.onRemoved(0, count);
+            onCurrentListChanged(previousList, commitCallback);
+            return;
+        }
+        if (list == null) {
+            list = newList;
+            readOnlyList = Collections.unmodifiableList(newList);
+            listUpdateCallback.onInserted(0, newList.size());
+            onCurrentListChanged(previousList, commitCallback);
+            return;
+        }
+        final List<T> oldList = list;
+        pendingList = newList;
+        pendingCommitCallback = commitCallback;
+        final ListAdapterCompat.KeyExtractor<T> diffKeyExtractor = keyExtractor;
+        config.getBackgroundThreadExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                final KeyedDiff keyedDiff = diffKeyExtractor == null ? null
+                        : KeyedDiff.calculateDiff(oldList, newList, diffKeyExtractor, config.getDiffCallback());
+                final DiffUtil.DiffResult result = keyedDiff != null ? null : DiffUtil.calculateDiff(new DiffUtil.Callback() {
+                    @Override
+                    public int getOldListSize() {
+                        return oldList.size();
+                    }
+
+                    @Override
+                    public int getNewListSize() {
+                        return newList.size();
+                    }
+
+                    @Override
+                    public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+                        T oldItem = oldList.get(oldItemPosition);
+                        T newItem = newList.get(newItemPosition);
+                        if (oldItem != null && newItem != null) {
+                            return config.getDiffCallback().areItemsTheSame(oldItem, newItem);
+                        }
+                        return oldItem == null && newItem == null;
+                    }
+
+                    @Override
+                    public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+                        T oldItem = oldList.get(oldItemPosition);
+                        T newItem = newList.get(newItemPosition);
+                        if (oldItem != null && newItem != null) {
+                            return config.getDiffCallback().areContentsTheSame(oldItem, newItem);
+                        }
+                        if (oldItem == null && newItem == null) {
+                            return true;
+                        }
+                        throw new AssertionError();
+                    }
+
+                    @Nullable
+                    @Override
+                    public Object getChangePayload(int oldItemPosition, int newItemPosition) {
+                        T oldItem = oldList.get(oldItemPosition);
+                        T newItem = newList.get(newItemPosition);
+                        if (oldItem != null && newItem != null) {
+                            return config.getDiffCallback().getChangePayload(oldItem, newItem);
+                        }
+                        throw new AssertionError();
+                    }
+                });
+                MAIN_HANDLER.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (maxScheduledGeneration == runGeneration) {
+                            pendingList = null;
+                            pendingCommitCallback = null;
+                            list = newList;
+                            readOnlyList = Collections.unmodifiableList(newList);
+                            if (keyedDiff != null) {
+                                keyedDiff.dispatchUpdatesTo(listUpdateCallback);
+                            } else {
+                                result.dispatchUpdatesTo(listUpdateCallback);
+                            }
+                            onCurrentListChanged(previousList, commitCallback);
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    void submitAppend(@NonNull Collection<? extends T> items) {
+        submitInsert(getPatchBaseList().size(), items);
+    }
+
+    void submitInsert(int position, @NonNull Collection<? extends T> items) {
+        List<T> baseList = getPatchBaseList();
+        if (position < 0 || position > baseList.size()) {
+            throw new IndexOutOfBoundsException("Position: " + position + ", Size: " + baseList.size());
+        }
+        if (items.isEmpty()) {
+            return;
+        }
+        List<T> newList = new ArrayList<>(baseList.size() + items.size());
+        newList.addAll(baseList.subList(0, position));
+        newList.addAll(items);
+        newList.addAll(baseList.subList(position, baseList.size()));
+        if (pendingList != null) {
+            submitList(newList, pendingCommitCallback);
+            return;
+        }
+        applyPatch(newList);
+        listUpdateCallback.onInserted(position, items.size());
+    }
+
+    void submitRemoveRange(int position, int count) {
+        List<T> baseList = getPatchBaseList();
+        if (position < 0 || count < 0 || position + count > baseList.size()) {
+            throw new IndexOutOfBoundsException("Position: " + position + ", Count: " + count
+                    + ", Size: " + baseList.size());
+        }
+        if (count == 0) {
+            return;
+        }
+        List<T> newList = new ArrayList<>(baseList.size() - count);
+        newList.addAll(baseList.subList(0, position));
+        newList.addAll(baseList.subList(position + count, baseList.size()));
+        if (pendingList != null) {
+            submitList(newList, pendingCommitCallback);
+            return;
+        }
+        applyPatch(newList);
+        listUpdateCallback.onRemoved(position, count);
+    }
+
+    void submitReplace(int position, @NonNull Collection<? extends T> items) {
+        List<T> baseList = getPatchBaseList();
+        if (position < 0 || position + items.size() > baseList.size()) {
+            throw new IndexOutOfBoundsException("Position: " + position + ", Count: " + items.size()
+                    + ", Size: " + baseList.size());
+        }
+        if (items.isEmpty()) {
+            return;
+        }
+        List<T> newList = new ArrayList<>(baseList);
+        int index = position;
+        for (T item : items) {
+            newList.set(index++, item);
+        }
+        if (pendingList != null) {
+            submitList(newList, pendingCommitCallback);
+            return;
+        }
+        applyPatch(newList);
+        listUpdateCallback.onChanged(position, items.size(), null);
+    }
+
+    @NonNull
+    private List<T> getPatchBaseList() {
+        // A patch made while a diff is running applies on top of the list being diffed
+        if (pendingList != null) {
+            return pendingList;
+        }
+        return readOnlyList;
+    }
+
+    private void applyPatch(@NonNull List<T> newList) {
+        List<T> previousList = readOnlyList;
+        list = newList;
+        readOnlyList = Collections.unmodifiableList(newList);
+        onCurrentListChanged(previousList, null);
+    }
+
+    private void onCurrentListChanged(@NonNull List<T> previousList, @Nullable Runnable commitCallback) {
+        onCurrentListChangedListener.onCurrentListChanged(previousList, readOnlyList);
+        if (commitCallback != null) {
+            commitCallback.run();
+        }
+    }
+
+    interface OnCurrentListChangedListener<T> {
+        void onCurrentListChanged(@NonNull List<T> previousList, @NonNull List<T> currentList);
+    }
+}
@@ -27,64 +27,292 @@
 
 package dev.alshakib.rvcompat.adapter;
 
+import android.os.SystemClock;
+import android.view.View;
 import android.view.ViewGroup;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.paging.PagedList;
 import androidx.paging.PagedListAdapter;
 import androidx.recyclerview.widget.AsyncDifferConfig;
 import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
 
+import java.util.List;
+
+import dev.alshakib.rvcompat.diff.DiffExecutor;
+import dev.alshakib.rvcompat.view.FastScrollRecyclerView;
 import dev.alshakib.rvcompat.viewholder.ViewHolderCompat;
 
+// PagedList and PagedListAdapter are deprecated in Paging 3, this adapter stays for existing
+// PagedList callers while PagingDataAdapterCompat is the replacement for new code
+@SuppressWarnings("deprecation")
 public abstract class PagedListAdapterCompat<T, VH extends ViewHolderCompat>
         extends PagedListAdapter<T, VH>
-        implements AdapterCompat<VH> {
+        implements AdapterCompat<VH>, FastScrollRecyclerView.OnFastScrollStateChangeListener {
+    private static final long SETTLE_LOAD_DELAY_MS = 150;
+
+    private final AdapterCompatDelegate<VH> adapterCompatDelegate;
 
-    private ViewHolderCompat.OnItemClickListener onItemClickListener;
-    private ViewHolderCompat.OnItemLongClickListener onItemLongClickListener;
+    private final DiffExecutor.Client diffExecutorClient;
+    private final View.OnAttachStateChangeListener onAttachStateChangeListener;
+    private final SubmitCoalescer<PagedList<T>> submitCoalescer;
+    private final Runnable settleLoadRunnable;
+    private final View.OnLayoutChangeListener loadAfterLayoutListener;
+
+    private RecyclerView recyclerView;
+    private boolean isFastScrolling;
+    private boolean isSettleLoadPosted;
+    private boolean isLoadAfterLayoutPending;
+    private long lastSuppressedLoadTime;
+    private int avoidedLoadCount;
 
     public PagedListAdapterCompat(@NonNull AsyncDifferConfig<T> config) {
-        super(config);
+        this(config, null);
     }
 
     public PagedListAdapterCompat(@NonNull DiffUtil.ItemCallback<T> diffCallback) {
-        super(diffCallback);
+        this(diffCallback, DiffExecutor.getInstance().newClient());
+    }
+
+    private PagedListAdapterCompat(@NonNull DiffUtil.ItemCallback<T> diffCallback,
+                                   @NonNull DiffExecutor.Client diffExecutorClient) {
+        this(new AsyncDifferConfig.Builder<>(diffCallback)
+                .setBackgroundThreadExecutor(diffExecutorClient)
+                .build(), diffExecutorClient);
+    }
+
+    private PagedListAdapterCompat(@NonNull AsyncDifferConfig<T> config,
+                                   @Nullable final DiffExecutor.Client diffExecutorClient) {
+        super(config);
+        this.adapterCompatDelegate = new AdapterCompatDelegate<>(this);
+        this.diffExecutorClient = diffExecutorClient;
+        this.submitCoalescer = new SubmitCoalescer<>(new SubmitCoalescer.Submitter<PagedList<T>>() {
+            @Override
+            public void submit(@Nullable PagedList<T> list, @NonNull Runnable commitCallback) {
+                PagedListAdapterCompat.super.submitList(list, commitCallback);
+            }
+        });
+        this.settleLoadRunnable = new Runnable() {
+            @Override
+            public void run() {
+                isSettleLoadPosted = false;
+                if (!isFastScrolling || recyclerView == null) {
+                    return;
+                }
+                // Wait until the thumb rests for a moment before loading what is under it
+                long idleTime = SystemClock.uptimeMillis() - lastSuppressedLoadTime;
+                if (idleTime < SETTLE_LOAD_DELAY_MS) {
+                    isSettleLoadPosted = true;
+                    recyclerView.postDelayed(this, SETTLE_LOAD_DELAY_MS - idleTime);
+                    return;
+                }
+                loadAroundVisibleRange();
+            }
+        };
+        this.loadAfterLayoutListener = new View.OnLayoutChangeListener() {
+            @Override
+            public void onLayoutChange(View v, int left, int top, int right, int bottom,
+                                       int oldLeft, int oldTop, int oldRight, int oldBottom) {
+                v.removeOnLayoutChangeListener(this);
+                isLoadAfterLayoutPending = false;
+                loadAroundVisibleRange();
+            }
+        };
+        this.onAttachStateChangeListener = new View.OnAttachStateChangeListener() {
+            @Override
+            public void onViewAttachedToWindow(View v) {
+                if (diffExecutorClient != null) {
+                    diffExecutorClient.setVisible(true);
+                }
+            }
+
+            @Override
+            public void onViewDetachedFromWindow(View v) {
+                if (diffExecutorClient != null) {
+                    diffExecutorClient.setVisible(false);
+                }
+            }
+        };
     }
 
     @NonNull
     @Override
     public VH onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
-        VH viewHolderCompat = onCreateViewHolderCompat(parent, viewType);
-        viewHolderCompat.setOnItemClickListener(getOnItemClickListener());
-        viewHolderCompat.setOnItemLongClickListener(getOnItemLongClickListener());
-        return viewHolderCompat;
+        return adapterCompatDelegate.onCreateViewHolder(parent, viewType);
     }
 
     @Override
     public void onBindViewHolder(@NonNull VH holder, int position) {
-        onBindViewHolderCompat(holder, position);
+        adapterCompatDelegate.onBindViewHolder(holder, position);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull VH holder, int position, @NonNull List<Object> payloads) {
+        adapterCompatDelegate.onBindViewHolder(holder, position, payloads);
+    }
+
+    @Override
+    public void onAttachedToRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onAttachedToRecyclerView(recyclerView);
+        this.recyclerView = recyclerView;
+        if (diffExecutorClient != null) {
+            recyclerView.addOnAttachStateChangeListener(onAttachStateChangeListener);
+            diffExecutorClient.setVisible(recyclerView.isAttachedToWindow());
+        }
+    }
+
+    @Override
+    public void onDetachedFromRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onDetachedFromRecyclerView(recyclerView);
+        if (this.recyclerView == recyclerView) {
+            recyclerView.removeCallbacks(settleLoadRunnable);
+            isSettleLoadPosted = false;
+            cancelLoadAfterLayout();
+            this.recyclerView = null;
+        }
+        if (diffExecutorClient != null) {
+            recyclerView.removeOnAttachStateChangeListener(onAttachStateChangeListener);
+            diffExecutorClient.setVisible(false);
+        }
+    }
+
+    @Nullable
+    @Override
+    protected T getItem(int position) {
+        PagedList<T> currentList = getCurrentList();
+        if (!isFastScrolling || currentList == null) {
+            return super.getItem(position);
+        }
+        // Reading the list directly skips the loadAround() a bind would otherwise fire
+        T item = currentList.get(position);
+        if (item == null) {
+            // Only a placeholder would have needed a page load, loaded rows cost nothing either way
+            ++avoidedLoadCount;
+            lastSuppressedLoadTime = SystemClock.uptimeMillis();
+            if (!isSettleLoadPosted && recyclerView != null) {
+                isSettleLoadPosted = true;
+                recyclerView.postDelayed(settleLoadRunnable, SETTLE_LOAD_DELAY_MS);
+            }
+        }
+        return item;
+    }
+
+    @Override
+    public void onFastScrollStart() {
+        isFastScrolling = true;
+        cancelLoadAfterLayout();
+    }
+
+    @Override
+    public void onFastScrollStop() {
+        isFastScrolling = false;
+        if (isSettleLoadPosted && recyclerView != null) {
+            recyclerView.removeCallbacks(settleLoadRunnable);
+        }
+        isSettleLoadPosted = false;
+        if (recyclerView != null && recyclerView.isLayoutRequested()) {
+            // At ACTION_UP the landing scroll has only requested its layout, the visible range is stale until it runs
+            if (!isLoadAfterLayoutPending) {
+                isLoadAfterLayoutPending = true;
+                recyclerView.addOnLayoutChangeListener(loadAfterLayoutListener);
+            }
+            return;
+        }
+        loadAroundVisibleRange();
+    }
+
+    // Number of placeholder rows read without triggering their page load while fast scrolling
+    public int getAvoidedLoadCount() {
+        return avoidedLoadCount;
+    }
+
+    public void resetAvoidedLoadCount() {
+        avoidedLoadCount = 0;
+    }
+
+    private void cancelLoadAfterLayout() {
+        if (isLoadAfterLayoutPending && recyclerView != null) {
+            recyclerView.removeOnLayoutChangeListener(loadAfterLayoutListener);
+        }
+        isLoadAfterLayoutPending = false;
+    }
+
+    private void loadAroundVisibleRange() {
+        PagedList<T> currentList = getCurrentList();
+        if (currentList == null || currentList.isEmpty() || recyclerView == null
+                || !(recyclerView.getLayoutManager() instanceof LinearLayoutManager)) {
+            return;
+        }
+        LinearLayoutManager layoutManager = (LinearLayoutManager) recyclerView.getLayoutManager();
+        int firstPosition = layoutManager.findFirstVisibleItemPosition();
+        int lastPosition = layoutManager.findLastVisibleItemPosition();
+        if (firstPosition == RecyclerView.NO_POSITION) {
+            return;
+        }
+        currentList.loadAround(Math.min(currentList.size() - 1, (firstPosition + Math.max(firstPosition, lastPosition)) / 2));
+    }
+
+    @Override
+    public void submitList(@Nullable PagedList<T> list) {
+        submitCoalescer.cancel();
+        super.submitList(list);
+    }
+
+    @Override
+    public void submitList(@Nullable PagedList<T> list, @Nullable Runnable commitCallback) {
+        submitCoalescer.cancel();
+        super.submitList(list, commitCallback);
+    }
+
+    public void submitListCoalesced(@Nullable PagedList<T> list) {
+        submitCoalescer.submit(list);
+    }
+
+    public void setOnCoalescedCommitListener(@Nullable SubmitCoalescer.OnCoalescedCommitListener onCoalescedCommitListener) {
+        submitCoalescer.setOnCoalescedCommitListener(onCoalescedCommitListener);
+    }
+
+    @Nullable
+    public DiffExecutor.Client getDiffExecutorClient() {
+        return diffExecutorClient;
+    }
+
+    @Nullable
+    public AdapterTimings getAdapterTimings() {
+        return adapterCompatDelegate.getAdapterTimings();
+    }
+
+    public void setAdapterTimingsEnabled(boolean enabled) {
+        adapterCompatDelegate.setAdapterTimingsEnabled(enabled);
+    }
+
+    // Calls onCreateViewHolderCompat off the main thread, see AdapterCompat for its thread-safety contract
+    public void preInflateViewHolders(@NonNull RecyclerView recyclerView, int viewType, int count) {
+        adapterCompatDelegate.preInflateViewHolders(recyclerView, viewType, count);
     }
 
     @Nullable
     @Override
     public ViewHolderCompat.OnItemClickListener getOnItemClickListener() {
-        return onItemClickListener;
+        return adapterCompatDelegate.getOnItemClickListener();
     }
 
     @Override
     public void setOnItemClickListener(@Nullable ViewHolderCompat.OnItemClickListener onItemClickListener) {
-        this.onItemClickListener = onItemClickListener;
+        adapterCompatDelegate.setOnItemClickListener(onItemClickListener);
     }
 
     @Nullable
     @Override
     public ViewHolderCompat.OnItemLongClickListener getOnItemLongClickListener() {
-        return onItemLongClickListener;
+        return adapterCompatDelegate.getOnItemLongClickListener();
     }
 
     @Override
     public void setOnItemLongClickListener(@Nullable ViewHolderCompat.OnItemLongClickListener onItemLongClickListener) {
-        this.onItemLongClickListener = onItemLongClickListener;
+        adapterCompatDelegate.setOnItemLongClickListener(onItemLongClickListener);
     }
 }
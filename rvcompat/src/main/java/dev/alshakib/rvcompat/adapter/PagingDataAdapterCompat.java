@@ -0,0 +1,197 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Al Shakib (shakib@alshakib.dev)
+ *
+ * This file is part of Recycler View Compat
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.alshakib.rvcompat.adapter;
+
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.paging.PagingDataAdapter;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.List;
+
+import dev.alshakib.rvcompat.view.FastScrollRecyclerView;
+import dev.alshakib.rvcompat.viewholder.ViewHolderCompat;
+
+// Subclasses must read items through getItemCompat in onBindViewHolderCompat and in
+// FastScrollRecyclerView.OnSectionName. A plain getItem there counts as an access, so every row
+// the thumb passes during a drag triggers its page load and the jump never happens
+public abstract class PagingDataAdapterCompat<T, VH extends ViewHolderCompat>
+        extends PagingDataAdapter<T, VH>
+        implements AdapterCompat<VH>, FastScrollRecyclerView.OnFastScrollStateChangeListener {
+
+    private final AdapterCompatDelegate<VH> adapterCompatDelegate;
+
+    private final View.OnLayoutChangeListener accessAfterLayoutListener;
+
+    private RecyclerView recyclerView;
+    private boolean isFastScrolling;
+    private boolean isAccessAfterLayoutPending;
+
+    public PagingDataAdapterCompat(@NonNull DiffUtil.ItemCallback<T> diffCallback) {
+        super(diffCallback);
+        this.adapterCompatDelegate = new AdapterCompatDelegate<>(this);
+        this.accessAfterLayoutListener = new View.OnLayoutChangeListener() {
+            @Override
+            public void onLayoutChange(View v, int left, int top, int right, int bottom,
+                                       int oldLeft, int oldTop, int oldRight, int oldBottom) {
+                v.removeOnLayoutChangeListener(this);
+                isAccessAfterLayoutPending = false;
+                accessVisibleRange();
+            }
+        };
+    }
+
+    @NonNull
+    @Override
+    public VH onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        return adapterCompatDelegate.onCreateViewHolder(parent, viewType);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull VH holder, int position) {
+        adapterCompatDelegate.onBindViewHolder(holder, position);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull VH holder, int position, @NonNull List<Object> payloads) {
+        adapterCompatDelegate.onBindViewHolder(holder, position, payloads);
+    }
+
+    @Override
+    public void onAttachedToRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onAttachedToRecyclerView(recyclerView);
+        this.recyclerView = recyclerView;
+    }
+
+    @Override
+    public void onDetachedFromRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onDetachedFromRecyclerView(recyclerView);
+        if (this.recyclerView == recyclerView) {
+            cancelAccessAfterLayout();
+            this.recyclerView = null;
+        }
+    }
+
+    // Peeks while the thumb is dragged so rows passed on the way do not page in sequentially.
+    // Returns null for placeholders, bind them as empty rows
+    @Nullable
+    public T getItemCompat(int position) {
+        if (isFastScrolling) {
+            return peek(position);
+        }
+        return getItem(position);
+    }
+
+    public boolean isFastScrolling() {
+        return isFastScrolling;
+    }
+
+    @Override
+    public void onFastScrollStart() {
+        isFastScrolling = true;
+        cancelAccessAfterLayout();
+    }
+
+    @Override
+    public void onFastScrollStop() {
+        isFastScrolling = false;
+        if (recyclerView != null && recyclerView.isLayoutRequested()) {
+            // At ACTION_UP the landing scroll has only requested its layout, the visible range is stale until it runs
+            if (!isAccessAfterLayoutPending) {
+                isAccessAfterLayoutPending = true;
+                recyclerView.addOnLayoutChangeListener(accessAfterLayoutListener);
+            }
+            return;
+        }
+        accessVisibleRange();
+    }
+
+    private void cancelAccessAfterLayout() {
+        if (isAccessAfterLayoutPending && recyclerView != null) {
+            recyclerView.removeOnLayoutChangeListener(accessAfterLayoutListener);
+        }
+        isAccessAfterLayoutPending = false;
+    }
+
+    private void accessVisibleRange() {
+        if (recyclerView == null || !(recyclerView.getLayoutManager() instanceof LinearLayoutManager)) {
+            return;
+        }
+        // One access at the landing range lets a jumping PagingSource refresh around it
+        LinearLayoutManager layoutManager = (LinearLayoutManager) recyclerView.getLayoutManager();
+        int firstPosition = layoutManager.findFirstVisibleItemPosition();
+        int lastPosition = layoutManager.findLastVisibleItemPosition();
+        if (firstPosition != RecyclerView.NO_POSITION && firstPosition < getItemCount()) {
+            getItem(firstPosition);
+        }
+        if (lastPosition != RecyclerView.NO_POSITION && lastPosition != firstPosition && lastPosition < getItemCount()) {
+            getItem(lastPosition);
+        }
+    }
+
+    @Nullable
+    public AdapterTimings getAdapterTimings() {
+        return adapterCompatDelegate.getAdapterTimings();
+    }
+
+    public void setAdapterTimingsEnabled(boolean enabled) {
+        adapterCompatDelegate.setAdapterTimingsEnabled(enabled);
+    }
+
+    // Calls onCreateViewHolderCompat off the main thread, see AdapterCompat for its thread-safety contract
+    public void preInflateViewHolders(@NonNull RecyclerView recyclerView, int viewType, int count) {
+        adapterCompatDelegate.preInflateViewHolders(recyclerView, viewType, count);
+    }
+
+    @Nullable
+    @Override
+    public ViewHolderCompat.OnItemClickListener getOnItemClickListener() {
+        return adapterCompatDelegate.getOnItemClickListener();
+    }
+
+    @Override
+    public void setOnItemClickListener(@Nullable ViewHolderCompat.OnItemClickListener onItemClickListener) {
+        adapterCompatDelegate.setOnItemClickListener(onItemClickListener);
+    }
+
+    @Nullable
+    @Override
+    public ViewHolderCompat.OnItemLongClickListener getOnItemLongClickListener() {
+        return adapterCompatDelegate.getOnItemLongClickListener();
+    }
+
+    @Override
+    public void setOnItemLongClickListener(@Nullable ViewHolderCompat.OnItemLongClickListener onItemLongClickListener) {
+        adapterCompatDelegate.setOnItemLongClickListener(onItemLongClickListener);
+    }
+}
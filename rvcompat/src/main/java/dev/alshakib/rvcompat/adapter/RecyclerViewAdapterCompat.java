@@ -33,48 +33,69 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.recyclerview.widget.RecyclerView;
 
+import java.util.List;
+
 import dev.alshakib.rvcompat.viewholder.ViewHolderCompat;
 
 public abstract class RecyclerViewAdapterCompat<VH extends ViewHolderCompat>
         extends RecyclerView.Adapter<VH>
         implements AdapterCompat<VH> {
 
-    private ViewHolderCompat.OnItemClickListener onItemClickListener;
-    private ViewHolderCompat.OnItemLongClickListener onItemLongClickListener;
+    private final AdapterCompatDelegate<VH> adapterCompatDelegate;
+
+    public RecyclerViewAdapterCompat() {
+        this.adapterCompatDelegate = new AdapterCompatDelegate<>(this);
+    }
 
     @NonNull
     @Override
     public VH onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
-        VH viewHolderCompat = onCreateViewHolderCompat(parent, viewType);
-        viewHolderCompat.setOnItemClickListener(getOnItemClickListener());
-        viewHolderCompat.setOnItemLongClickListener(getOnItemLongClickListener());
-        return viewHolderCompat;
+        return adapterCompatDelegate.onCreateViewHolder(parent, viewType);
     }
 
     @Override
     public void onBindViewHolder(@NonNull VH holder, int position) {
-        onBindViewHolderCompat(holder, position);
+        adapterCompatDelegate.onBindViewHolder(holder, position);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull VH holder, int position, @NonNull List<Object> payloads) {
+        adapterCompatDelegate.onBindViewHolder(holder, position, payloads);
+    }
+
+    @Nullable
+    public AdapterTimings getAdapterTimings() {
+        return adapterCompatDelegate.getAdapterTimings();
+    }
+
+    public void setAdapterTimingsEnabled(boolean enabled) {
+        adapterCompatDelegate.setAdapterTimingsEnabled(enabled);
+    }
+
+    // Calls onCreateViewHolderCompat off the main thread, see AdapterCompat for its thread-safety contract
+    public void preInflateViewHolders(@NonNull RecyclerView recyclerView, int viewType, int count) {
+        adapterCompatDelegate.preInflateViewHolders(recyclerView, viewType, count);
     }
 
     @Nullable
     @Override
     public ViewHolderCompat.OnItemClickListener getOnItemClickListener() {
-        return onItemClickListener;
+        return adapterCompatDelegate.getOnItemClickListener();
     }
 
     @Override
     public void setOnItemClickListener(@Nullable ViewHolderCompat.OnItemClickListener onItemClickListener) {
-        this.onItemClickListener = onItemClickListener;
+        adapterCompatDelegate.setOnItemClickListener(onItemClickListener);
     }
 
     @Nullable
     @Override
     public ViewHolderCompat.OnItemLongClickListener getOnItemLongClickListener() {
-        return onItemLongClickListener;
+        return adapterCompatDelegate.getOnItemLongClickListener();
     }
 
     @Override
     public void setOnItemLongClickListener(@Nullable ViewHolderCompat.OnItemLongClickListener onItemLongClickListener) {
-        this.onItemLongClickListener = onItemLongClickListener;
+        adapterCompatDelegate.setOnItemLongClickListener(onItemLongClickListener);
     }
 }
@@ -0,0 +1,123 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Al Shakib (shakib@alshakib.dev)
+ *
+ * This file is part of Recycler View Compat
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.alshakib.rvcompat.adapter;
+
+import android.view.Choreographer;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+public final class SubmitCoalescer<L> {
+    private final Submitter<L> submitter;
+    private final Choreographer.FrameCallback frameCallback;
+
+    private OnCoalescedCommitListener onCoalescedCommitListener;
+    private L pendingList;
+    private boolean hasPendingList;
+    private boolean isDiffInFlight;
+    private boolean isFramePosted;
+    private int droppedCount;
+    private int generation;
+
+    SubmitCoalescer(@NonNull Submitter<L> submitter) {
+        this.submitter = submitter;
+        this.frameCallback = new Choreographer.FrameCallback() {
+            @Override
+            public void doFrame(long frameTimeNanos) {
+                isFramePosted = false;
+                dispatchPendingList();
+            }
+        };
+    }
+
+    void setOnCoalescedCommitListener(@Nullable OnCoalescedCommitListener onCoalescedCommitListener) {
+        this.onCoalescedCommitListener = onCoalescedCommitListener;
+    }
+
+    void submit(@Nullable L list) {
+        if (hasPendingList) {
+            ++droppedCount;
+        }
+        pendingList = list;
+        hasPendingList = true;
+        scheduleDispatch();
+    }
+
+    void cancel() {
+        pendingList = null;
+        hasPendingList = false;
+        isDiffInFlight = false;
+        droppedCount = 0;
+        ++generation;
+        if (isFramePosted) {
+            Choreographer.getInstance().removeFrameCallback(frameCallback);
+            isFramePosted = false;
+        }
+    }
+
+    private void scheduleDispatch() {
+        if (hasPendingList && !isDiffInFlight && !isFramePosted) {
+            isFramePosted = true;
+            Choreographer.getInstance().postFrameCallback(frameCallback);
+        }
+    }
+
+    private void dispatchPendingList() {
+        if (!hasPendingList || isDiffInFlight) {
+            return;
+        }
+        L list = pendingList;
+        final int dropped = droppedCount;
+        final int dispatchGeneration = generation;
+        pendingList = null;
+        hasPendingList = false;
+        droppedCount = 0;
+        isDiffInFlight = true;
+        submitter.submit(list, new Runnable() {
+            @Override
+            public void run() {
+                if (dispatchGeneration != generation) {
+                    return;
+                }
+                isDiffInFlight = false;
+                if (onCoalescedCommitListener != null) {
+                    onCoalescedCommitListener.onCoalescedCommit(dropped);
+                }
+                scheduleDispatch();
+            }
+        });
+    }
+
+    interface Submitter<L> {
+        void submit(@Nullable L list, @NonNull Runnable commitCallback);
+    }
+
+    public interface OnCoalescedCommitListener {
+        void onCoalescedCommit(int droppedSubmissions);
+    }
+}
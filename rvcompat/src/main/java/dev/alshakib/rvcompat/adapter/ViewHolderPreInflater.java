@@ -0,0 +1,196 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Al Shakib (shakib@alshakib.dev)
+ *
+ * This file is part of Recycler View Compat
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.alshakib.rvcompat.adapter;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import dev.alshakib.rvcompat.pool.SharedRecycledViewPool;
+
+final class ViewHolderPreInflater {
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+    private static final ExecutorService INFLATE_EXECUTOR = Executors.newSingleThreadExecutor(
+            new ThreadFactory() {
+                @Override
+                public Thread newThread(@NonNull final Runnable runnable) {
+                    Thread thread = new Thread(new Runnable() {
+                        @Override
+                        public void run() {
+                            Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                            runnable.run();
+                        }
+                    }, "rvcompat-pre-inflater");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+
+    private ViewHolderPreInflater() { }
+
+    static <VH extends RecyclerView.ViewHolder> void preInflate(@NonNull final RecyclerView.Adapter<VH> adapter,
+                                                                @NonNull final RecyclerView recyclerView,
+                                                                final int viewType, int count) {
+        final PreInflation preInflation = new PreInflation(recyclerView, viewType, count);
+        for (int i = 0; i < count; ++i) {
+            INFLATE_EXECUTOR.execute(new Runnable() {
+                @Override
+                public void run() {
+                    VH viewHolder = null;
+                    // A stopped pre-inflation stays stopped, the main thread skips these holders too
+                    if (!preInflation.isStopped) {
+                        try {
+                            viewHolder = adapter.createViewHolder(recyclerView, viewType);
+                        } catch (RuntimeException e) {
+                            // Some views insist on a looper thread, those are inflated on the main thread
+                            viewHolder = null;
+                        }
+                    }
+                    final VH inflatedViewHolder = viewHolder;
+                    MAIN_HANDLER.post(new Runnable() {
+                        @Override
+                        public void run() {
+                            if (!preInflation.isStopped) {
+                                VH viewHolder = inflatedViewHolder;
+                                if (viewHolder == null) {
+                                    viewHolder = adapter.createViewHolder(recyclerView, viewType);
+                                }
+                                preInflation.putRecycledView(viewHolder);
+                            }
+                            preInflation.onPosted();
+                        }
+                    });
+                }
+            });
+        }
+    }
+
+    private static final class PreInflation
+            implements RecyclerView.OnChildAttachStateChangeListener, View.OnAttachStateChangeListener {
+        private final RecyclerView recyclerView;
+        private final RecyclerView.RecycledViewPool recycledViewPool;
+        private final int viewType;
+
+        // Read by the inflater thread to skip the holders left once the pool stops taking them
+        private volatile boolean isStopped;
+        private int pendingCount;
+        private int originalMaxRecycledViews = -1;
+
+        private PreInflation(@NonNull RecyclerView recyclerView, int viewType, int count) {
+            this.recyclerView = recyclerView;
+            this.recycledViewPool = recyclerView.getRecycledViewPool();
+            this.viewType = viewType;
+            this.pendingCount = count;
+        }
+
+        // The pool has no getter for its maximum, a holder that does not stick is the only sign it
+        // is full, and then its count is the maximum. Raising it just past the pooled count only
+        // ever grows it, so a larger maximum set by the app or the fast scroll prefetcher is kept
+        private void putRecycledView(@NonNull RecyclerView.ViewHolder viewHolder) {
+            if (isOverTotalBudget()) {
+                this.isStopped = true;
+                return;
+            }
+            int recycledViewCount = this.recycledViewPool.getRecycledViewCount(this.viewType);
+            this.recycledViewPool.putRecycledView(viewHolder);
+            if (this.recycledViewPool.getRecycledViewCount(this.viewType) > recycledViewCount) {
+                return;
+            }
+            if (this.originalMaxRecycledViews < 0) {
+                this.originalMaxRecycledViews = recycledViewCount;
+            }
+            this.recycledViewPool.setMaxRecycledViews(this.viewType, recycledViewCount + 1);
+            this.recycledViewPool.putRecycledView(viewHolder);
+            if (this.recycledViewPool.getRecycledViewCount(this.viewType) == recycledViewCount) {
+                this.isStopped = true;
+            }
+        }
+
+        // A shared pool drops holders once all view types together hit its budget, raising the
+        // maximum of one type would not help and could lower a maximum it is still below
+        private boolean isOverTotalBudget() {
+            if (!(this.recycledViewPool instanceof SharedRecycledViewPool)) {
+                return false;
+            }
+            SharedRecycledViewPool sharedRecycledViewPool = (SharedRecycledViewPool) this.recycledViewPool;
+            return sharedRecycledViewPool.getTotalRecycledViewCount()
+                    >= sharedRecycledViewPool.getMaxTotalRecycledViews();
+        }
+
+        private void onPosted() {
+            if (--this.pendingCount > 0 || this.originalMaxRecycledViews < 0) {
+                return;
+            }
+            // The raised maximum is kept until the extra holders have been taken out of the pool,
+            // restoring it right away would throw them out again
+            if (!restoreMaxRecycledViewsIfTaken()) {
+                this.recyclerView.addOnChildAttachStateChangeListener(this);
+                this.recyclerView.addOnAttachStateChangeListener(this);
+            }
+        }
+
+        private boolean restoreMaxRecycledViewsIfTaken() {
+            if (this.recycledViewPool.getRecycledViewCount(this.viewType) > this.originalMaxRecycledViews) {
+                return false;
+            }
+            restoreMaxRecycledViews();
+            return true;
+        }
+
+        private void restoreMaxRecycledViews() {
+            this.recyclerView.removeOnChildAttachStateChangeListener(this);
+            this.recyclerView.removeOnAttachStateChangeListener(this);
+            this.recycledViewPool.setMaxRecycledViews(this.viewType, this.originalMaxRecycledViews);
+        }
+
+        @Override
+        public void onChildViewAttachedToWindow(@NonNull View view) {
+            restoreMaxRecycledViewsIfTaken();
+        }
+
+        @Override
+        public void onChildViewDetachedFromWindow(@NonNull View view) { }
+
+        @Override
+        public void onViewAttachedToWindow(View view) { }
+
+        // Also trims the holders that were never used, the list is going away
+        @Override
+        public void onViewDetachedFromWindow(View view) {
+            restoreMaxRecycledViews();
+        }
+    }
+}
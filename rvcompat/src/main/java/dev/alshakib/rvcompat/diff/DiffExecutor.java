@@ -0,0 +1,201 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Al Shakib (shakib@alshakib.dev)
+ *
+ * This file is part of Recycler View Compat
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.alshakib.rvcompat.diff;
+
+import android.os.Process;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public final class DiffExecutor {
+    private static final int DEFAULT_THREAD_COUNT =
+            Math.max(1, Math.min(2, Runtime.getRuntime().availableProcessors() - 1));
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    private static volatile DiffExecutor instance;
+
+    private final ThreadPoolExecutor threadPoolExecutor;
+    private final AtomicLong sequence;
+    private final AtomicLong completedDiffCount;
+    private final AtomicLong totalDiffDurationNanos;
+    private final AtomicInteger cancelledDiffCount;
+
+    public DiffExecutor(int threadCount) {
+        this.sequence = new AtomicLong();
+        this.completedDiffCount = new AtomicLong();
+        this.totalDiffDurationNanos = new AtomicLong();
+        this.cancelledDiffCount = new AtomicInteger();
+        this.threadPoolExecutor = new ThreadPoolExecutor(threadCount, threadCount,
+                KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new PriorityBlockingQueue<Runnable>(),
+                new ThreadFactory() {
+                    private final AtomicInteger threadNumber = new AtomicInteger();
+
+                    @Override
+                    public Thread newThread(@NonNull final Runnable runnable) {
+                        Thread thread = new Thread(new Runnable() {
+                            @Override
+                            public void run() {
+                                Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                                runnable.run();
+                            }
+                        }, "rvcompat-diff-" + threadNumber.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+        this.threadPoolExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    @NonNull
+    public static DiffExecutor getInstance() {
+        if (instance == null) {
+            synchronized (DiffExecutor.class) {
+                if (instance == null) {
+                    instance = new DiffExecutor(DEFAULT_THREAD_COUNT);
+                }
+            }
+        }
+        return instance;
+    }
+
+    @NonNull
+    public Client newClient() {
+        return new Client();
+    }
+
+    public int getQueueDepth() {
+        return threadPoolExecutor.getQueue().size();
+    }
+
+    public long getCompletedDiffCount() {
+        return completedDiffCount.get();
+    }
+
+    public int getCancelledDiffCount() {
+        return cancelledDiffCount.get();
+    }
+
+    public long getAverageDiffDurationNanos() {
+        long count = completedDiffCount.get();
+        return count == 0 ? 0 : totalDiffDurationNanos.get() / count;
+    }
+
+    public final class Client implements Executor {
+        private final AtomicLong lastDiffDurationNanos;
+
+        private DiffTask pendingDiffTask;
+        private boolean isVisible;
+
+        private Client() {
+            this.lastDiffDurationNanos = new AtomicLong();
+            this.isVisible = true;
+        }
+
+        public synchronized boolean isVisible() {
+            return isVisible;
+        }
+
+        public synchronized void setVisible(boolean visible) {
+            if (isVisible == visible) {
+                return;
+            }
+            isVisible = visible;
+            // Requeue the waiting diff so it is ordered by the new priority
+            if (pendingDiffTask != null && threadPoolExecutor.remove(pendingDiffTask)) {
+                pendingDiffTask = new DiffTask(this, pendingDiffTask.runnable);
+                threadPoolExecutor.execute(pendingDiffTask);
+            }
+        }
+
+        public long getLastDiffDurationNanos() {
+            return lastDiffDurationNanos.get();
+        }
+
+        @Override
+        public synchronized void execute(@NonNull Runnable runnable) {
+            // The differ only applies its latest generation, a diff still waiting is dead weight
+            if (pendingDiffTask != null && threadPoolExecutor.remove(pendingDiffTask)) {
+                cancelledDiffCount.incrementAndGet();
+            }
+            pendingDiffTask = new DiffTask(this, runnable);
+            threadPoolExecutor.execute(pendingDiffTask);
+        }
+
+        private synchronized void onDiffStarted(DiffTask diffTask) {
+            if (pendingDiffTask == diffTask) {
+                pendingDiffTask = null;
+            }
+        }
+
+        private void onDiffFinished(long durationNanos) {
+            lastDiffDurationNanos.set(durationNanos);
+            completedDiffCount.incrementAndGet();
+            totalDiffDurationNanos.addAndGet(durationNanos);
+        }
+    }
+
+    private final class DiffTask implements Runnable, Comparable<DiffTask> {
+        private final Client client;
+        private final Runnable runnable;
+        private final boolean isVisible;
+        private final long sequence;
+
+        private DiffTask(Client client, Runnable runnable) {
+            this.client = client;
+            this.runnable = runnable;
+            this.isVisible = client.isVisible;
+            this.sequence = DiffExecutor.this.sequence.getAndIncrement();
+        }
+
+        @Override
+        public void run() {
+            client.onDiffStarted(this);
+            long startNanos = System.nanoTime();
+            try {
+                runnable.run();
+            } finally {
+                client.onDiffFinished(System.nanoTime() - startNanos);
+            }
+        }
+
+        @Override
+        public int compareTo(DiffTask other) {
+            if (isVisible != other.isVisible) {
+                return isVisible ? -1 : 1;
+            }
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Al Shakib (shakib@alshakib.dev)
+ *
+ * This file is part of Recycler View Compat
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.alshakib.rvcompat.pool;
+
+import android.util.SparseIntArray;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+// RecyclerView looks recycled holders up by view type alone, so every list sharing a pool must map
+// each view type to the same holder class and layout. Lists with their own view type numbering
+// need their own key, e.g. the holder class name. Pools are created and handed out on the main thread.
+// Pooled holders keep their views and with them the Activity they were inflated in, so lists should
+// join through attachTo(), which empties the pool once none of its lists is attached to a window
+public class SharedRecycledViewPool extends RecyclerView.RecycledViewPool {
+    public static final String DEFAULT_KEY = "default";
+
+    private static final int DEFAULT_MAX_TOTAL_RECYCLED_VIEWS = 64;
+
+    private static final Map<String, SharedRecycledViewPool> INSTANCES = new HashMap<>();
+
+    private final SparseIntArray viewTypes;
+    // Weak so a list dropped without detachFrom() is not kept alive by the pool
+    private final Set<RecyclerView> recyclerViews;
+    private final View.OnAttachStateChangeListener onAttachStateChangeListener;
+
+    private int maxTotalRecycledViews;
+    private int hitCount;
+    private int missCount;
+    private int droppedCount;
+    private int attachedRecyclerViewCount;
+
+    public SharedRecycledViewPool() {
+        this(DEFAULT_MAX_TOTAL_RECYCLED_VIEWS);
+    }
+
+    public SharedRecycledViewPool(int maxTotalRecycledViews) {
+        this.viewTypes = new SparseIntArray();
+        this.recyclerViews = Collections.newSetFromMap(new WeakHashMap<RecyclerView, Boolean>());
+        this.maxTotalRecycledViews = maxTotalRecycledViews;
+        this.onAttachStateChangeListener = new View.OnAttachStateChangeListener() {
+            // A list may swap the pool out with setRecycledViewPool() without detachFrom()
+            @Override
+            public void onViewAttachedToWindow(View view) {
+                if (((RecyclerView) view).getRecycledViewPool() != SharedRecycledViewPool.this) {
+                    view.removeOnAttachStateChangeListener(this);
+                    recyclerViews.remove(view);
+                    return;
+                }
+                ++attachedRecyclerViewCount;
+            }
+
+            @Override
+            public void onViewDetachedFromWindow(View view) {
+                if (((RecyclerView) view).getRecycledViewPool() != SharedRecycledViewPool.this) {
+                    view.removeOnAttachStateChangeListener(this);
+                    recyclerViews.remove(view);
+                }
+                onRecyclerViewDetached();
+            }
+        };
+    }
+
+    @NonNull
+    public static SharedRecycledViewPool getInstance() {
+        return getInstance(DEFAULT_KEY);
+    }
+
+    @NonNull
+    public static SharedRecycledViewPool getInstance(@NonNull String key) {
+        SharedRecycledViewPool instance = INSTANCES.get(key);
+        if (instance == null) {
+            instance = new SharedRecycledViewPool();
+            INSTANCES.put(key, instance);
+        }
+        return instance;
+    }
+
+    public void attachTo(@NonNull RecyclerView recyclerView) {
+        if (!recyclerViews.add(recyclerView)) {
+            return;
+        }
+        if (recyclerView.getRecycledViewPool() != this) {
+            recyclerView.setRecycledViewPool(this);
+        }
+        recyclerView.addOnAttachStateChangeListener(onAttachStateChangeListener);
+        if (recyclerView.isAttachedToWindow()) {
+            ++attachedRecyclerViewCount;
+        }
+    }
+
+    public void detachFrom(@NonNull RecyclerView recyclerView) {
+        boolean isTracked = recyclerViews.remove(recyclerView);
+        if (recyclerView.getRecycledViewPool() != this) {
+            return;
+        }
+        // The list gets a pool of its own and leaves its holders in this one
+        recyclerView.setRecycledViewPool(null);
+        if (isTracked) {
+            recyclerView.removeOnAttachStateChangeListener(onAttachStateChangeListener);
+            if (recyclerView.isAttachedToWindow()) {
+                onRecyclerViewDetached();
+            }
+        }
+    }
+
+    public int getAttachedRecyclerViewCount() {
+        return attachedRecyclerViewCount;
+    }
+
+    private void onRecyclerViewDetached() {
+        if (--attachedRecyclerViewCount == 0) {
+            clear();
+        }
+    }
+
+    public int getMaxTotalRecycledViews() {
+        return maxTotalRecycledViews;
+    }
+
+    public void setMaxTotalRecycledViews(int maxTotalRecycledViews) {
+        this.maxTotalRecycledViews = maxTotalRecycledViews;
+    }
+
+    public int getTotalRecycledViewCount() {
+        int count = 0;
+        for (int i = 0; i < viewTypes.size(); ++i) {
+            count += getRecycledViewCount(viewTypes.keyAt(i));
+        }
+        return count;
+    }
+
+    public int getHitCount() {
+        return hitCount;
+    }
+
+    public int getMissCount() {
+        return missCount;
+    }
+
+    public int getDroppedCount() {
+        return droppedCount;
+    }
+
+    public void resetCounters() {
+        hitCount = 0;
+        missCount = 0;
+        droppedCount = 0;
+    }
+
+    @Nullable
+    @Override
+    public RecyclerView.ViewHolder getRecycledView(int viewType) {
+        RecyclerView.ViewHolder viewHolder = super.getRecycledView(viewType);
+        if (viewHolder != null) {
+            ++hitCount;
+        } else {
+            ++missCount;
+        }
+        return viewHolder;
+    }
+
+    @Override
+    public void putRecycledView(RecyclerView.ViewHolder scrap) {
+        if (getTotalRecycledViewCount() >= maxTotalRecycledViews) {
+            ++droppedCount;
+            return;
+        }
+        viewTypes.put(scrap.getItemViewType(), 1);
+        super.putRecycledView(scrap);
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        viewTypes.clear();
+    }
+}
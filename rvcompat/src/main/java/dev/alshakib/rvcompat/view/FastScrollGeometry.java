@@ -0,0 +1,78 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Al Shakib (shakib@alshakib.dev)
+ *
+ * This file is part of Recycler View Compat
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.alshakib.rvcompat.view;
+
+// Pure fast scroll arithmetic, kept free of framework types so it runs on a plain JVM
+final class FastScrollGeometry {
+
+    private FastScrollGeometry() { }
+
+    static int getAvailableScrollHeight(int adapterHeight, int paddingTop, int paddingBottom, int height) {
+        return (paddingTop + adapterHeight + paddingBottom) - height;
+    }
+
+    static int getAvailableScrollBarHeight(int height, int paddingTop, int paddingBottom, int thumbHeight) {
+        return (height - paddingTop - paddingBottom) - thumbHeight;
+    }
+
+    // The scrollY of the recycler view accounts for the view padding, while the scrollBarY is
+    // drawn right up to the background padding (ignoring padding)
+    static int calculateThumbY(int scrolledHeight, int firstVisibleRowOffset, int availableScrollHeight,
+                               int availableScrollBarHeight, int paddingTop, int paddingBottom,
+                               boolean isReversed) {
+        int scrollY = Math.min(availableScrollHeight, paddingTop + scrolledHeight);
+        if (isReversed) {
+            scrollY = scrollY + firstVisibleRowOffset - availableScrollBarHeight;
+        } else {
+            scrollY = scrollY - firstVisibleRowOffset;
+        }
+        int scrollBarY = (int) (((float) scrollY / (float) availableScrollHeight) * (float) availableScrollBarHeight);
+        if (isReversed) {
+            return availableScrollBarHeight - scrollBarY + paddingBottom;
+        }
+        return scrollBarY + paddingTop;
+    }
+
+    static float findItemPosition(HeightIndex heightIndex, float touchFraction, int itemCount) {
+        if (heightIndex != null) {
+            int position = heightIndex.findIndex((int) (touchFraction * heightIndex.getTotalHeight()));
+            if (position >= 0) {
+                return position;
+            }
+        }
+        return touchFraction * itemCount;
+    }
+
+    static int getRowCount(int itemCount, int spanCount) {
+        return (int) Math.ceil((float) itemCount / (float) spanCount);
+    }
+
+    static int getRowForPosition(int position, int spanCount) {
+        return position < 0 ? position : position / spanCount;
+    }
+}
@@ -33,6 +33,7 @@ import android.animation.ObjectAnimator;
 import android.content.Context;
 import android.content.res.Resources;
 import android.content.res.TypedArray;
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
@@ -41,10 +42,15 @@ import android.graphics.Point;
 import android.graphics.Rect;
 import android.graphics.RectF;
 import android.graphics.Typeface;
+import android.os.SystemClock;
 import android.text.TextUtils;
 import android.util.AttributeSet;
+import android.util.Log;
+import android.util.LruCache;
 import android.util.SparseIntArray;
 import android.util.TypedValue;
+import android.view.Choreographer;
+import android.view.Display;
 import android.view.MotionEvent;
 import android.view.View;
 
@@ -53,6 +59,7 @@ import androidx.annotation.IntDef;
 import androidx.annotation.Keep;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
 import androidx.interpolator.view.animation.FastOutLinearInInterpolator;
 import androidx.interpolator.view.animation.LinearOutSlowInInterpolator;
 import androidx.recyclerview.widget.GridLayoutManager;
@@ -60,21 +67,44 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import java.lang.annotation.Retention;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import dev.alshakib.rvcompat.R;
+import dev.alshakib.rvcompat.pool.SharedRecycledViewPool;
 
 import static java.lang.annotation.RetentionPolicy.SOURCE;
 
 public class FastScrollRecyclerView extends RecyclerView
         implements RecyclerView.OnItemTouchListener {
+    private static final String TAG = "FastScrollRecyclerView";
+
     private boolean isFastScrollEnabled;
+    private boolean isScrollbarDirty = true;
+    private int scrollbarUpdateCount;
+    private int heightRequestCount;
+    private int sectionNameRequestCount;
+    private int layoutPassCount;
     private int currentPositionX;
     private int currentPositionY;
     private int lastKnownPositionY;
 
     private final CurrentScrollState currentScrollState;
     private final FastScroller fastScroller;
-    private final SparseIntArray sparseIntArray;
+    private final FenwickHeightIndex viewHolderHeightIndex;
+    private final ViewTypeHeightIndex viewTypeHeightIndex;
+    private final SparseIntArray viewTypeHeights;
+    private PrefixSumHeightIndex concurrentHeightIndex;
+    private AtomicBoolean concurrentHeightIndexBuild;
+    private final SectionNameCache sectionNameCache;
+    private final GridRowIndex gridRowIndex;
+    private final FastScrollSessionRecorder fastScrollSessionRecorder;
+    private final ViewHolderPrefetcher viewHolderPrefetcher;
+    private GridLayoutManager.SpanSizeLookup gridSpanSizeLookup;
     private final ScrollOffsetInvalidator scrollOffsetInvalidator;
     private OnFastScrollStateChangeListener onFastScrollStateChangeListener;
 
@@ -99,7 +129,13 @@ public class FastScrollRecyclerView extends RecyclerView
         currentScrollState = new CurrentScrollState();
         fastScroller = new FastScroller(context, this, attrs);
         scrollOffsetInvalidator = new ScrollOffsetInvalidator();
-        sparseIntArray = new SparseIntArray();
+        viewHolderHeightIndex = new FenwickHeightIndex();
+        viewTypeHeightIndex = new ViewTypeHeightIndex();
+        viewTypeHeights = new SparseIntArray();
+        sectionNameCache = new SectionNameCache(32);
+        gridRowIndex = new GridRowIndex();
+        fastScrollSessionRecorder = new FastScrollSessionRecorder();
+        viewHolderPrefetcher = new ViewHolderPrefetcher();
     }
 
     public int getTouchInset() {
@@ -136,10 +172,12 @@ public class FastScrollRecyclerView extends RecyclerView
 
     public void setThumbWidth(int width) {
         fastScroller.setThumbWidth(width);
+        invalidateScrollbar();
     }
 
     public void setThumbHeight(int height) {
         fastScroller.setThumbHeight(height);
+        invalidateScrollbar();
     }
 
     public void setThumbColor(@ColorInt int color) {
@@ -148,6 +186,7 @@ public class FastScrollRecyclerView extends RecyclerView
 
     public void setTrackWidth(int width) {
         fastScroller.setTrackWidth(width);
+        invalidateScrollbar();
     }
 
     public void setTrackColor(@ColorInt int color) {
@@ -170,6 +209,10 @@ public class FastScrollRecyclerView extends RecyclerView
         fastScroller.setPopupTypeface(typeface);
     }
 
+    public void setPopupBubbleCacheEnabled(boolean enabled) {
+        fastScroller.setPopupBubbleCacheEnabled(enabled);
+    }
+
     public void setAutoHideDelay(int hideDelay) {
         fastScroller.setAutoHideDelay(hideDelay);
     }
@@ -194,8 +237,96 @@ public class FastScrollRecyclerView extends RecyclerView
         fastScroller.enableThumbInactiveColor(allowInactiveColor);
     }
 
+    public void setFastScrollFrameCoalescingEnabled(boolean enabled) {
+        fastScroller.setFrameCoalescingEnabled(enabled);
+    }
+
+    public void setSharedRecycledViewPoolEnabled(boolean enabled) {
+        setSharedRecycledViewPoolEnabled(enabled, SharedRecycledViewPool.DEFAULT_KEY);
+    }
+
+    // Only lists agreeing on what each view type holds may share a key, see SharedRecycledViewPool
+    public void setSharedRecycledViewPoolEnabled(boolean enabled, @NonNull String key) {
+        SharedRecycledViewPool sharedRecycledViewPool = SharedRecycledViewPool.getInstance(key);
+        if (enabled) {
+            sharedRecycledViewPool.attachTo(this);
+        } else {
+            sharedRecycledViewPool.detachFrom(this);
+        }
+    }
+
+    // Opt in only when positions sharing a section name are contiguous, as in a list sorted by its
+    // section key. Names then cache across positions the popup never asked for
+    public void setContiguousSectionNamesEnabled(boolean enabled) {
+        sectionNameCache.setMergingAcrossGaps(enabled);
+        invalidateSectionNames();
+    }
+
+    public void setFastScrollSessionStatsEnabled(boolean enabled) {
+        fastScrollSessionRecorder.setEnabled(enabled);
+    }
+
+    public void setFastScrollPrefetchEnabled(boolean enabled) {
+        viewHolderPrefetcher.setEnabled(enabled);
+    }
+
+    public int getPrefetchPredictionCount() {
+        return viewHolderPrefetcher.predictionCount;
+    }
+
+    public int getPrefetchHitCount() {
+        return viewHolderPrefetcher.predictionHitCount;
+    }
+
+    public int getPrefetchedViewHolderCount() {
+        return viewHolderPrefetcher.prefetchedViewHolderCount;
+    }
+
     public void setFastScrollEnabled(boolean fastScrollEnabled) {
         isFastScrollEnabled = fastScrollEnabled;
+        // While disabled draw() leaves the dirty flag set, so invalidateScrollbar() would not redraw
+        isScrollbarDirty = true;
+        invalidate();
+    }
+
+    @VisibleForTesting
+    public int getScrollbarUpdateCount() {
+        return scrollbarUpdateCount;
+    }
+
+    @VisibleForTesting
+    public int getHeightRequestCount() {
+        return heightRequestCount;
+    }
+
+    @VisibleForTesting
+    public int getSectionNameRequestCount() {
+        return sectionNameRequestCount;
+    }
+
+    @VisibleForTesting
+    public int getLayoutPassCount() {
+        return layoutPassCount;
+    }
+
+    @VisibleForTesting
+    public void resetPerformanceCounters() {
+        scrollbarUpdateCount = 0;
+        heightRequestCount = 0;
+        sectionNameRequestCount = 0;
+        layoutPassCount = 0;
+    }
+
+    private void invalidateSectionNames() {
+        sectionNameCache.clear();
+        fastScroller.invalidateSectionNames();
+    }
+
+    private void invalidateScrollbar() {
+        if (!isScrollbarDirty) {
+            isScrollbarDirty = true;
+            invalidate();
+        }
     }
 
     public String scrollToPositionAtProgress(float touchFraction) {
@@ -209,10 +340,9 @@ public class FastScrollRecyclerView extends RecyclerView
         }
 
         int spanCount = 1;
-        int rowCount = itemCount;
+        int rowCount = getRowCount(itemCount);
         if (getLayoutManager() instanceof GridLayoutManager) {
             spanCount = ((GridLayoutManager) getLayoutManager()).getSpanCount();
-            rowCount = (int) Math.ceil((float) rowCount / (float) spanCount);
         }
 
         stopScroll();
@@ -224,7 +354,7 @@ public class FastScrollRecyclerView extends RecyclerView
         int scrollPosition;
         int scrollOffset;
 
-        if (getAdapter() instanceof OnViewHolderHeight) {
+        if (hasMeasuredHeights()) {
             itemPos = findItemPosition(touchFraction);
             availableScrollHeight = getAvailableScrollHeight(calculateAdapterHeight());
             int passedHeight = (int) (availableScrollHeight * touchFraction);
@@ -239,7 +369,11 @@ public class FastScrollRecyclerView extends RecyclerView
 
             // Have smooth scrolling
             float rowHeight = currentScrollState.currentRowHeight > 0 ? currentScrollState.currentRowHeight : 1f;
-            scrollPosition = (int) ((float) spanCount * (float) exactItemPosition / rowHeight);
+            if (hasCustomSpanSizes()) {
+                scrollPosition = gridRowIndex.getFirstPosition((int) ((float) exactItemPosition / rowHeight));
+            } else {
+                scrollPosition = (int) ((float) spanCount * (float) exactItemPosition / rowHeight);
+            }
             scrollOffset = (int) -((float) exactItemPosition % rowHeight);
         }
 
@@ -247,11 +381,22 @@ public class FastScrollRecyclerView extends RecyclerView
         if (layoutManager != null) {
             layoutManager.scrollToPositionWithOffset(scrollPosition, scrollOffset);
         }
+        if (fastScrollSessionRecorder.isRecording()) {
+            fastScrollSessionRecorder.onScrollToPosition(scrollPosition);
+        }
 
         if ((getAdapter() instanceof OnSectionName)) {
             int position = (int) ((touchFraction == 1) ? getAdapter().getItemCount() - 1 : itemPos);
 
-            return ((OnSectionName) getAdapter()).getSectionName(position);
+            String sectionName = sectionNameCache.get(position);
+            if (sectionName == null) {
+                ++sectionNameRequestCount;
+                sectionName = ((OnSectionName) getAdapter()).getSectionName(position);
+                if (sectionName != null) {
+                    sectionNameCache.put(position, sectionName);
+                }
+            }
+            return sectionName;
         }
 
         return null;
@@ -285,18 +430,20 @@ public class FastScrollRecyclerView extends RecyclerView
     }
 
     private int getAvailableScrollHeight(int adapterHeight) {
-        return (getPaddingTop() + adapterHeight + getPaddingBottom()) - getHeight();
+        return FastScrollGeometry.getAvailableScrollHeight(adapterHeight, getPaddingTop(),
+                getPaddingBottom(), getHeight());
     }
 
     private int getAvailableScrollBarHeight() {
-        return (getHeight() - getPaddingTop() - getPaddingBottom()) - fastScroller.getThumbHeight();
+        return FastScrollGeometry.getAvailableScrollBarHeight(getHeight(), getPaddingTop(),
+                getPaddingBottom(), fastScroller.getThumbHeight());
     }
 
     private void updateThumbPosition(CurrentScrollState currentScrollState, int rowCount) {
         int availableScrollHeight;
         int scrolledHeight;
 
-        if (getAdapter() instanceof OnViewHolderHeight) {
+        if (hasMeasuredHeights()) {
             availableScrollHeight = getAvailableScrollHeight(calculateAdapterHeight());
             scrolledHeight = calculateScrollDistanceToPosition(currentScrollState.firstVisibleRowIndex);
         } else {
@@ -310,22 +457,11 @@ public class FastScrollRecyclerView extends RecyclerView
             return;
         }
 
-        // Calculate the current scroll position, the scrollY of the recycler view accounts for the
-        // view padding, while the scrollBarY is drawn right up to the background padding (ignoring
-        // padding)
-        int availableScrollBarHeight = getAvailableScrollBarHeight();
-        int scrollY = Math.min(availableScrollHeight, getPaddingTop() + scrolledHeight);
-        if (isLayoutManagerReversed()) {
-            scrollY = scrollY + currentScrollState.firstVisibleRowOffset - availableScrollBarHeight;
-        } else {
-            scrollY = scrollY - currentScrollState.firstVisibleRowOffset;
-        }
-        int scrollBarY = (int) (((float) scrollY / (float) availableScrollHeight) * (float) availableScrollBarHeight);
-        if (isLayoutManagerReversed()) {
-            scrollBarY = availableScrollBarHeight - scrollBarY + getPaddingBottom();
-        } else {
-            scrollBarY += getPaddingTop();
-        }
+        // Calculate the current scroll position
+        int scrollBarY = FastScrollGeometry.calculateThumbY(scrolledHeight,
+                currentScrollState.firstVisibleRowOffset, availableScrollHeight,
+                getAvailableScrollBarHeight(), getPaddingTop(), getPaddingBottom(),
+                isLayoutManagerReversed());
 
         // Calculate the position and size of the scroll bar
         int scrollBarX;
@@ -337,63 +473,28 @@ public class FastScrollRecyclerView extends RecyclerView
         fastScroller.setThumbPosition(scrollBarX, scrollBarY);
     }
 
-    @SuppressWarnings("unchecked")
     private int findMeasureAdapterFirstVisiblePosition(int passedHeight) {
-        if (getAdapter() instanceof OnViewHolderHeight) {
-            OnViewHolderHeight<ViewHolder> onViewHolderHeight = (OnViewHolderHeight<ViewHolder>) getAdapter();
-            for (int i = 0; i < getAdapter().getItemCount(); ++i) {
-                int top = calculateScrollDistanceToPosition(i);
-                int bottom = top + onViewHolderHeight.getViewHolderHeight(this,
-                        findViewHolderForAdapterPosition(i), getAdapter().getItemViewType(i));
-                if (i == getAdapter().getItemCount() - 1) {
-                    if (passedHeight >= top && passedHeight <= bottom) {
-                        return i;
-                    }
-                } else {
-                    if (passedHeight >= top && passedHeight < bottom) {
-                        return i;
-                    }
-                }
+        if (hasMeasuredHeights()) {
+            HeightIndex heightIndex = ensureHeightIndex();
+            int position = heightIndex.findIndex(passedHeight);
+            if (position >= 0) {
+                return position;
             }
-            int low = calculateScrollDistanceToPosition(0);
-            int height = calculateScrollDistanceToPosition(getAdapter().getItemCount() - 1)
-                    + onViewHolderHeight.getViewHolderHeight(this,
-                    findViewHolderForAdapterPosition(getAdapter().getItemCount() - 1),
-                    getAdapter().getItemViewType(getAdapter().getItemCount() - 1));
             throw new IllegalStateException(String.format("Invalid passed height: %d, " +
-                    "[low: %d, height: %d]", passedHeight, low, height));
+                    "[low: %d, height: %d]", passedHeight, 0, heightIndex.getTotalHeight()));
         } else {
             throw new IllegalStateException("findMeasureAdapterFirstVisiblePosition() should " +
                     "only be called where the RecyclerView.Adapter is an instance " +
-                    "of OnViewHolderHeight");
+                    "of OnViewHolderHeight or OnViewTypeHeight");
         }
     }
 
-    @SuppressWarnings("unchecked")
     private float findItemPosition(float touchFraction) {
-        if (getAdapter() instanceof OnViewHolderHeight) {
-            OnViewHolderHeight<ViewHolder> measurer = (OnViewHolderHeight<ViewHolder>) getAdapter();
-            int viewTop = (int) (touchFraction * calculateAdapterHeight());
-
-            for (int i = 0; i < getAdapter().getItemCount(); ++i) {
-                int top = calculateScrollDistanceToPosition(i);
-                int bottom = top + measurer.getViewHolderHeight(this,
-                        findViewHolderForAdapterPosition(i), getAdapter().getItemViewType(i));
-                if (i == getAdapter().getItemCount() - 1) {
-                    if (viewTop >= top && viewTop <= bottom) {
-                        return i;
-                    }
-                } else {
-                    if (viewTop >= top && viewTop < bottom) {
-                        return i;
-                    }
-                }
-            }
-        }
-        if (getAdapter() != null) {
-            return touchFraction * getAdapter().getItemCount();
+        if (getAdapter() == null) {
+            return 0;
         }
-        return 0;
+        return FastScrollGeometry.findItemPosition(hasMeasuredHeights() ? ensureHeightIndex() : null,
+                touchFraction, getAdapter().getItemCount());
     }
 
     private void updateScrollbar() {
@@ -401,11 +502,7 @@ public class FastScrollRecyclerView extends RecyclerView
             return;
         }
 
-        int rowCount = getAdapter().getItemCount();
-        if (getLayoutManager() instanceof GridLayoutManager) {
-            int spanCount = ((GridLayoutManager) getLayoutManager()).getSpanCount();
-            rowCount = (int) Math.ceil((float) rowCount / (float) spanCount);
-        }
+        int rowCount = getRowCount(getAdapter().getItemCount());
 
         if (rowCount == 0) {
             fastScroller.setThumbPosition(-1, -1);
@@ -421,6 +518,51 @@ public class FastScrollRecyclerView extends RecyclerView
         updateThumbPosition(currentScrollState, rowCount);
     }
 
+    private int getRowCount(int itemCount) {
+        if (!(getLayoutManager() instanceof GridLayoutManager)) {
+            return itemCount;
+        }
+        if (hasCustomSpanSizes()) {
+            return ensureGridRowIndex().getRowCount();
+        }
+        return FastScrollGeometry.getRowCount(itemCount, ((GridLayoutManager) getLayoutManager()).getSpanCount());
+    }
+
+    private int getRowForPosition(int position) {
+        if (position < 0 || !(getLayoutManager() instanceof GridLayoutManager)) {
+            return position;
+        }
+        if (hasCustomSpanSizes()) {
+            return ensureGridRowIndex().getRow(position);
+        }
+        return FastScrollGeometry.getRowForPosition(position, ((GridLayoutManager) getLayoutManager()).getSpanCount());
+    }
+
+    private boolean hasCustomSpanSizes() {
+        return getLayoutManager() instanceof GridLayoutManager
+                && !(((GridLayoutManager) getLayoutManager()).getSpanSizeLookup()
+                instanceof GridLayoutManager.DefaultSpanSizeLookup);
+    }
+
+    private GridRowIndex ensureGridRowIndex() {
+        GridLayoutManager gridLayoutManager = (GridLayoutManager) getLayoutManager();
+        final GridLayoutManager.SpanSizeLookup spanSizeLookup = gridLayoutManager.getSpanSizeLookup();
+        int itemCount = getAdapter() != null ? getAdapter().getItemCount() : 0;
+        if (gridSpanSizeLookup != spanSizeLookup || gridRowIndex.size() > itemCount) {
+            gridSpanSizeLookup = spanSizeLookup;
+            gridRowIndex.clear();
+        }
+        if (gridRowIndex.size() < itemCount || gridRowIndex.getSpanCount() != gridLayoutManager.getSpanCount()) {
+            gridRowIndex.extend(itemCount, gridLayoutManager.getSpanCount(), new GridRowIndex.SpanSizes() {
+                @Override
+                public int getSpanSize(int position) {
+                    return spanSizeLookup.getSpanSize(position);
+                }
+            });
+        }
+        return gridRowIndex;
+    }
+
     private boolean isLayoutManagerReversed() {
         if (getLayoutManager() instanceof LinearLayoutManager) {
             return ((LinearLayoutManager) getLayoutManager()).getReverseLayout();
@@ -428,7 +570,6 @@ public class FastScrollRecyclerView extends RecyclerView
         return false;
     }
 
-    @SuppressWarnings("unchecked")
     private void updateCurrentScrollState(CurrentScrollState currentScrollState) {
         int itemCount = 0;
         if (getAdapter() != null) {
@@ -439,19 +580,17 @@ public class FastScrollRecyclerView extends RecyclerView
         }
 
         View child = getChildAt(0);
-        currentScrollState.firstVisibleRowIndex = getChildAdapterPosition(child);
-        if (getLayoutManager() instanceof GridLayoutManager) {
-            currentScrollState.firstVisibleRowIndex = currentScrollState.firstVisibleRowIndex /
-                    ((GridLayoutManager) getLayoutManager()).getSpanCount();
-        }
-        if (getAdapter() instanceof OnViewHolderHeight) {
+        currentScrollState.firstVisibleRowIndex = getRowForPosition(getChildAdapterPosition(child));
+        if (hasMeasuredHeights()) {
             if (getLayoutManager() != null) {
                 currentScrollState.firstVisibleRowOffset = getLayoutManager().getDecoratedTop(child);
             }
-            currentScrollState.currentRowHeight = ((OnViewHolderHeight<ViewHolder>) getAdapter())
-                    .getViewHolderHeight(this,
-                            findViewHolderForAdapterPosition(currentScrollState.firstVisibleRowIndex),
-                            getAdapter().getItemViewType(currentScrollState.firstVisibleRowIndex));
+            // The index already holds every row height, asking the adapter again costs a callback per frame
+            HeightIndex heightIndex = ensureHeightIndex();
+            int rowIndex = currentScrollState.firstVisibleRowIndex;
+            if (rowIndex >= 0 && rowIndex < heightIndex.size()) {
+                currentScrollState.currentRowHeight = heightIndex.getOffset(rowIndex + 1) - heightIndex.getOffset(rowIndex);
+            }
         } else {
             if (getLayoutManager() != null) {
                 currentScrollState.firstVisibleRowOffset = getLayoutManager().getDecoratedTop(child);
@@ -462,35 +601,160 @@ public class FastScrollRecyclerView extends RecyclerView
         }
     }
 
-    @SuppressWarnings("unchecked")
     private int calculateScrollDistanceToPosition(int adapterIndex) {
-        if (!(getAdapter() instanceof OnViewHolderHeight)) {
+        if (!hasMeasuredHeights()) {
             throw new IllegalStateException("calculateScrollDistanceToPosition() should only be" +
-                    " called where the RecyclerView.Adapter is an instance of OnViewHolderHeight");
+                    " called where the RecyclerView.Adapter is an instance of OnViewHolderHeight" +
+                    " or OnViewTypeHeight");
         }
 
-        if (sparseIntArray.indexOfKey(adapterIndex) >= 0) {
-            return sparseIntArray.get(adapterIndex);
+        return ensureHeightIndex().getOffset(adapterIndex);
+    }
+
+    private boolean hasMeasuredHeights() {
+        if (getAdapter() instanceof OnViewTypeHeight) {
+            return true;
+        }
+        if (getAdapter() instanceof OnConcurrentViewHolderHeight) {
+            // Until the background snapshot lands the uniform row height estimate is used
+            return requestConcurrentHeightIndex();
         }
+        return getAdapter() instanceof OnViewHolderHeight;
+    }
 
-        int totalHeight = 0;
-        OnViewHolderHeight<ViewHolder> measurer = (OnViewHolderHeight<ViewHolder>) getAdapter();
+    private boolean isViewTypeHeightAdapter() {
+        return getAdapter() instanceof OnViewTypeHeight;
+    }
+
+    private boolean isViewHolderHeightAdapter() {
+        return getAdapter() instanceof OnViewHolderHeight
+                && !(getAdapter() instanceof OnViewTypeHeight)
+                && !(getAdapter() instanceof OnConcurrentViewHolderHeight);
+    }
 
-        for (int i = 0; i < adapterIndex; i++) {
-            sparseIntArray.put(i, totalHeight);
-            int viewType = getAdapter().getItemViewType(i);
-            totalHeight += measurer.getViewHolderHeight(this,
-                    findViewHolderForAdapterPosition(i), viewType);
+    private boolean requestConcurrentHeightIndex() {
+        int itemCount = getAdapter() != null ? getAdapter().getItemCount() : 0;
+        if (concurrentHeightIndex != null && concurrentHeightIndex.size() == itemCount) {
+            return true;
         }
+        if (concurrentHeightIndexBuild == null) {
+            startConcurrentHeightIndexBuild(itemCount);
+        }
+        return false;
+    }
 
-        sparseIntArray.put(adapterIndex, totalHeight);
-        return totalHeight;
+    private void startConcurrentHeightIndexBuild(final int itemCount) {
+        final OnConcurrentViewHolderHeight measurer = (OnConcurrentViewHolderHeight) getAdapter();
+        final AtomicBoolean isCancelled = new AtomicBoolean();
+        concurrentHeightIndexBuild = isCancelled;
+        ForkJoinPool.commonPool().execute(new Runnable() {
+            @Override
+            public void run() {
+                PrefixSumHeightIndex heightIndex;
+                try {
+                    heightIndex = PrefixSumHeightIndex.build(itemCount, new PrefixSumHeightIndex.Heights() {
+                        @Override
+                        public int getHeight(int position) {
+                            return measurer.getViewHolderHeight(position);
+                        }
+                    }, ForkJoinPool.commonPool(), isCancelled);
+                } catch (RuntimeException e) {
+                    // The build stays marked as running so it is only retried once the adapter
+                    // data changes, until then the uniform row height estimate is used
+                    Log.w(TAG, "Building the concurrent height index failed", e);
+                    return;
+                }
+                final PrefixSumHeightIndex builtHeightIndex = heightIndex;
+                post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (concurrentHeightIndexBuild != isCancelled) {
+                            return;
+                        }
+                        concurrentHeightIndexBuild = null;
+                        if (builtHeightIndex != null) {
+                            concurrentHeightIndex = builtHeightIndex;
+                            invalidateScrollbar();
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    private void cancelConcurrentHeightIndexBuild() {
+        if (concurrentHeightIndexBuild != null) {
+            concurrentHeightIndexBuild.set(true);
+            concurrentHeightIndexBuild = null;
+        }
+        concurrentHeightIndex = null;
+    }
+
+    private HeightIndex ensureHeightIndex() {
+        int itemCount = getAdapter() != null ? getAdapter().getItemCount() : 0;
+        if (isViewTypeHeightAdapter()) {
+            if (viewTypeHeightIndex.size() != itemCount) {
+                viewTypeHeightIndex.clear();
+                for (int i = 0; i < itemCount; ++i) {
+                    viewTypeHeightIndex.append(measureViewHolderHeight(i));
+                }
+            } else if (viewTypeHeightIndex.hasUnmeasured()) {
+                // Items recorded by the data observer, only they are asked for their view type again
+                viewTypeHeightIndex.measure(new PrefixSumHeightIndex.Heights() {
+                    @Override
+                    public int getHeight(int position) {
+                        return measureViewHolderHeight(position);
+                    }
+                });
+            }
+            return viewTypeHeightIndex;
+        }
+        if (getAdapter() instanceof OnConcurrentViewHolderHeight) {
+            return concurrentHeightIndex;
+        }
+        if (viewHolderHeightIndex.size() != itemCount) {
+            viewHolderHeightIndex.reset(itemCount);
+        }
+        // Rows recorded by the data observer are measured here, once the adapter finished dispatching
+        if (viewHolderHeightIndex.hasDirtyRange()) {
+            for (int i = viewHolderHeightIndex.getDirtyStart(); i < viewHolderHeightIndex.getDirtyEnd(); ++i) {
+                if (viewHolderHeightIndex.isDirty(i)) {
+                    viewHolderHeightIndex.setHeight(i, measureViewHolderHeight(i));
+                }
+            }
+            viewHolderHeightIndex.clearDirtyRange();
+        }
+        return viewHolderHeightIndex;
+    }
+
+    @SuppressWarnings("unchecked")
+    private int measureViewHolderHeight(int adapterIndex) {
+        if (getAdapter() instanceof OnViewTypeHeight) {
+            // Heights only depend on the view type, ask the adapter once per type
+            int viewType = getAdapter().getItemViewType(adapterIndex);
+            int index = viewTypeHeights.indexOfKey(viewType);
+            if (index >= 0) {
+                return viewTypeHeights.valueAt(index);
+            }
+            ++heightRequestCount;
+            int height = ((OnViewTypeHeight) getAdapter()).getViewTypeHeight(this, viewType);
+            viewTypeHeights.put(viewType, height);
+            return height;
+        }
+        if (getAdapter() instanceof OnConcurrentViewHolderHeight) {
+            return concurrentHeightIndex.getHeight(adapterIndex);
+        }
+        OnViewHolderHeight<ViewHolder> measurer = (OnViewHolderHeight<ViewHolder>) getAdapter();
+        ++heightRequestCount;
+        return measurer.getViewHolderHeight(this, findViewHolderForAdapterPosition(adapterIndex),
+                getAdapter().getItemViewType(adapterIndex));
     }
 
     private int calculateAdapterHeight() {
-        if (!(getAdapter() instanceof OnViewHolderHeight)) {
+        if (!hasMeasuredHeights()) {
             throw new IllegalStateException("calculateAdapterHeight() should only be called " +
-                    "where the RecyclerView.Adapter is an instance of OnViewHolderHeight");
+                    "where the RecyclerView.Adapter is an instance of OnViewHolderHeight or " +
+                    "OnViewTypeHeight");
         }
         return calculateScrollDistanceToPosition(getAdapter().getItemCount());
     }
@@ -501,6 +765,25 @@ public class FastScrollRecyclerView extends RecyclerView
         addOnItemTouchListener(this);
     }
 
+    @Override
+    protected void onLayout(boolean changed, int l, int t, int r, int b) {
+        super.onLayout(changed, l, t, r, b);
+        ++layoutPassCount;
+        invalidateScrollbar();
+    }
+
+    @Override
+    public void onScrolled(int dx, int dy) {
+        super.onScrolled(dx, dy);
+        invalidateScrollbar();
+    }
+
+    @Override
+    public void setLayoutManager(@Nullable LayoutManager layout) {
+        super.setLayoutManager(layout);
+        invalidateScrollbar();
+    }
+
     @Override
     public void setAdapter(Adapter adapter) {
         if (getAdapter() != null) {
@@ -509,7 +792,12 @@ public class FastScrollRecyclerView extends RecyclerView
         if (adapter != null) {
             adapter.registerAdapterDataObserver(scrollOffsetInvalidator);
         }
+        viewTypeHeights.clear();
+        cancelConcurrentHeightIndexBuild();
+        invalidateSectionNames();
+        gridRowIndex.clear();
         super.setAdapter(adapter);
+        invalidateScrollbar();
     }
 
     @Override
@@ -526,11 +814,22 @@ public class FastScrollRecyclerView extends RecyclerView
     public void draw(Canvas c) {
         super.draw(c);
         if (isFastScrollEnabled) {
-            updateScrollbar();
-            fastScroller.draw(c);
+            // Thumb geometry only moves with scroll, layout or data changes, not on every frame
+            if (isScrollbarDirty) {
+                isScrollbarDirty = false;
+                ++scrollbarUpdateCount;
+                updateScrollbar();
+            }
+            drawFastScroller(c);
         }
     }
 
+    // Track, thumb and popup only, without the list underneath
+    @VisibleForTesting
+    void drawFastScroller(@NonNull Canvas canvas) {
+        fastScroller.draw(canvas);
+    }
+
     @Override
     public void onRequestDisallowInterceptTouchEvent(boolean disallowIntercept) { }
 
@@ -542,9 +841,20 @@ public class FastScrollRecyclerView extends RecyclerView
         int getViewHolderHeight(RecyclerView recyclerView, @Nullable VH viewHolder, int viewType);
     }
 
+    public interface OnViewTypeHeight {
+        int getViewTypeHeight(RecyclerView recyclerView, int viewType);
+    }
+
+    // Called from background threads, implementations must not touch views or mutable adapter state
+    public interface OnConcurrentViewHolderHeight {
+        int getViewHolderHeight(int position);
+    }
+
     public interface OnFastScrollStateChangeListener {
         void onFastScrollStart();
         void onFastScrollStop();
+
+        default void onFastScrollStop(@NonNull FastScrollSessionStats stats) { }
     }
 
     private static class CurrentScrollState {
@@ -553,44 +863,293 @@ public class FastScrollRecyclerView extends RecyclerView
         int currentRowHeight = -1;
     }
 
+    // Guesses where a thumb drag will land and fills the pool for that window in idle frame time,
+    // so the jump on release finds holders ready instead of inflating a whole screen at once
+    private class ViewHolderPrefetcher implements Runnable, OnLayoutChangeListener {
+        private static final long PREDICTION_LOOKAHEAD_MS = 120;
+
+        private final SparseIntArray windowViewTypes = new SparseIntArray();
+        // Maximums the pool had before a drag raised them, keyed by view type
+        private final SparseIntArray raisedMaxRecycledViews = new SparseIntArray();
+
+        private RecycledViewPool raisedRecycledViewPool;
+        private boolean isEnabled;
+        private boolean isDragging;
+        private boolean isPrefetchPosted;
+        private boolean isRestorePending;
+        private float lastTouchFraction;
+        private long lastSampleTime;
+        private float velocity;
+        private long lastCreateNanos;
+        private int predictedPosition = NO_POSITION;
+        private int predictionCount;
+        private int predictionHitCount;
+        private int prefetchedViewHolderCount;
+
+        private void setEnabled(boolean enabled) {
+            isEnabled = enabled;
+            if (!enabled) {
+                stop();
+            }
+        }
+
+        private void start() {
+            if (!isEnabled) {
+                return;
+            }
+            isDragging = true;
+            if (isRestorePending) {
+                // Another drag before the last one landed keeps the raised maximums until it stops
+                isRestorePending = false;
+                removeOnLayoutChangeListener(this);
+            }
+            lastSampleTime = 0;
+            velocity = 0;
+            predictedPosition = NO_POSITION;
+        }
+
+        private void onDrag(float touchFraction) {
+            if (!isDragging) {
+                return;
+            }
+            long now = SystemClock.uptimeMillis();
+            if (lastSampleTime != 0 && now > lastSampleTime) {
+                float sampleVelocity = (touchFraction - lastTouchFraction) / (now - lastSampleTime);
+                velocity = velocity * 0.5f + sampleVelocity * 0.5f;
+            }
+            lastTouchFraction = touchFraction;
+            lastSampleTime = now;
+            if (!isPrefetchPosted) {
+                isPrefetchPosted = true;
+                post(this);
+            }
+        }
+
+        private void stop() {
+            if (!isDragging) {
+                return;
+            }
+            isDragging = false;
+            if (isPrefetchPosted) {
+                isPrefetchPosted = false;
+                removeCallbacks(this);
+            }
+            if (predictedPosition != NO_POSITION && getAdapter() != null) {
+                ++predictionCount;
+                int landingPosition = (int) findItemPosition(lastTouchFraction);
+                if (Math.abs(landingPosition - predictedPosition) <= getChildCount()) {
+                    ++predictionHitCount;
+                }
+            }
+            if (raisedRecycledViewPool == null) {
+                return;
+            }
+            // The landing layout still has to take the prefetched holders out of the pool
+            if (isLayoutRequested()) {
+                if (!isRestorePending) {
+                    isRestorePending = true;
+                    addOnLayoutChangeListener(this);
+                }
+            } else {
+                restoreMaxRecycledViews();
+            }
+        }
+
+        @Override
+        public void onLayoutChange(View v, int left, int top, int right, int bottom,
+                                   int oldLeft, int oldTop, int oldRight, int oldBottom) {
+            removeOnLayoutChangeListener(this);
+            isRestorePending = false;
+            restoreMaxRecycledViews();
+        }
+
+        // Also trims the holders the landing layout did not use, so a shared pool does not keep them
+        private void restoreMaxRecycledViews() {
+            if (raisedRecycledViewPool == null) {
+                return;
+            }
+            for (int i = 0; i < raisedMaxRecycledViews.size(); ++i) {
+                raisedRecycledViewPool.setMaxRecycledViews(raisedMaxRecycledViews.keyAt(i), raisedMaxRecycledViews.valueAt(i));
+            }
+            raisedMaxRecycledViews.clear();
+            raisedRecycledViewPool = null;
+        }
+
+        // Returns whether the pool kept the holder
+        private boolean putRecycledView(@NonNull RecycledViewPool recycledViewPool, @NonNull ViewHolder viewHolder) {
+            if (recycledViewPool instanceof SharedRecycledViewPool) {
+                // Over its total budget a shared pool drops every holder, raising one maximum does not help
+                SharedRecycledViewPool sharedRecycledViewPool = (SharedRecycledViewPool) recycledViewPool;
+                if (sharedRecycledViewPool.getTotalRecycledViewCount() >= sharedRecycledViewPool.getMaxTotalRecycledViews()) {
+                    return false;
+                }
+            }
+            int viewType = viewHolder.getItemViewType();
+            int count = recycledViewPool.getRecycledViewCount(viewType);
+            recycledViewPool.putRecycledView(viewHolder);
+            if (recycledViewPool.getRecycledViewCount(viewType) > count) {
+                return true;
+            }
+            // A full pool drops the holder, and with no getter for the maximum its count is the old one
+            if (raisedRecycledViewPool != recycledViewPool) {
+                restoreMaxRecycledViews();
+                raisedRecycledViewPool = recycledViewPool;
+            }
+            if (raisedMaxRecycledViews.indexOfKey(viewType) < 0) {
+                raisedMaxRecycledViews.put(viewType, count);
+            }
+            recycledViewPool.setMaxRecycledViews(viewType, count + 1);
+            recycledViewPool.putRecycledView(viewHolder);
+            return recycledViewPool.getRecycledViewCount(viewType) > count;
+        }
+
+        @Override
+        public void run() {
+            isPrefetchPosted = false;
+            Adapter<?> adapter = getAdapter();
+            if (!isDragging || adapter == null || adapter.getItemCount() == 0) {
+                return;
+            }
+            float predictedFraction = Math.max(0, Math.min(1,
+                    lastTouchFraction + velocity * PREDICTION_LOOKAHEAD_MS));
+            int itemCount = adapter.getItemCount();
+            predictedPosition = Math.min(itemCount - 1, (int) findItemPosition(predictedFraction));
+
+            windowViewTypes.clear();
+            int windowEnd = Math.min(itemCount, predictedPosition + getChildCount() + 1);
+            for (int i = predictedPosition; i < windowEnd; ++i) {
+                int viewType = adapter.getItemViewType(i);
+                windowViewTypes.put(viewType, windowViewTypes.get(viewType) + 1);
+            }
+
+            // Work only in what is left of this frame, the way GapWorker budgets its prefetch
+            Display display = getDisplay();
+            float refreshRate = display != null && display.getRefreshRate() > 0 ? display.getRefreshRate() : 60f;
+            long deadlineNanos = TimeUnit.MILLISECONDS.toNanos(getDrawingTime())
+                    + (long) (TimeUnit.SECONDS.toNanos(1) / refreshRate);
+            RecycledViewPool recycledViewPool = getRecycledViewPool();
+            for (int i = 0; i < windowViewTypes.size(); ++i) {
+                int viewType = windowViewTypes.keyAt(i);
+                int needed = windowViewTypes.valueAt(i);
+                while (recycledViewPool.getRecycledViewCount(viewType) < needed) {
+                    if (System.nanoTime() + lastCreateNanos > deadlineNanos) {
+                        return;
+                    }
+                    long startNanos = System.nanoTime();
+                    ViewHolder viewHolder = adapter.createViewHolder(FastScrollRecyclerView.this, viewType);
+                    lastCreateNanos = System.nanoTime() - startNanos;
+                    if (!putRecycledView(recycledViewPool, viewHolder)) {
+                        // The pool refuses holders, creating more would only throw them away
+                        return;
+                    }
+                    ++prefetchedViewHolderCount;
+                }
+            }
+        }
+    }
+
     private class ScrollOffsetInvalidator extends AdapterDataObserver {
         private void invalidateAllScrollOffsets() {
-            sparseIntArray.clear();
+            invalidateSectionNames();
+            gridRowIndex.clear();
+            viewHolderHeightIndex.clear();
+            viewTypeHeightIndex.clear();
+            cancelConcurrentHeightIndexBuild();
+            invalidateScrollbar();
+        }
+
+        // The index replays every update of a dispatch in order, so it mirrors the adapter again
+        // once the dispatch ends. Nothing gets measured here, positions are only stable after it
+        private boolean isHeightIndexTracking(int positionEnd) {
+            if (isViewTypeHeightAdapter()) {
+                return viewTypeHeightIndex.size() > 0 && positionEnd <= viewTypeHeightIndex.size();
+            }
+            return isViewHolderHeightAdapter() && viewHolderHeightIndex.size() > 0
+                    && positionEnd <= viewHolderHeightIndex.size();
+        }
+
+        private void invalidatePatchedScrollOffsets() {
+            invalidateSectionNames();
+            invalidateScrollbar();
         }
 
         @Override
         public void onChanged() {
+            viewTypeHeights.clear();
             invalidateAllScrollOffsets();
         }
 
         @Override
         public void onItemRangeChanged(int positionStart, int itemCount) {
-            invalidateAllScrollOffsets();
+            gridRowIndex.truncate(positionStart);
+            if (isHeightIndexTracking(positionStart + itemCount)) {
+                if (isViewTypeHeightAdapter()) {
+                    viewTypeHeightIndex.markDirty(positionStart, itemCount);
+                } else {
+                    viewHolderHeightIndex.markDirty(positionStart, itemCount);
+                }
+                invalidatePatchedScrollOffsets();
+            } else {
+                invalidateAllScrollOffsets();
+            }
         }
 
         @Override
         public void onItemRangeChanged(int positionStart, int itemCount, Object payload) {
-            invalidateAllScrollOffsets();
+            onItemRangeChanged(positionStart, itemCount);
         }
 
         @Override
         public void onItemRangeInserted(int positionStart, int itemCount) {
-            invalidateAllScrollOffsets();
+            gridRowIndex.truncate(positionStart);
+            if (isHeightIndexTracking(positionStart)) {
+                if (isViewTypeHeightAdapter()) {
+                    viewTypeHeightIndex.insert(positionStart, itemCount);
+                } else {
+                    viewHolderHeightIndex.insert(positionStart, itemCount);
+                }
+                invalidatePatchedScrollOffsets();
+            } else {
+                invalidateAllScrollOffsets();
+            }
         }
 
         @Override
         public void onItemRangeRemoved(int positionStart, int itemCount) {
-            invalidateAllScrollOffsets();
+            gridRowIndex.truncate(positionStart);
+            if (isHeightIndexTracking(positionStart + itemCount)) {
+                if (isViewTypeHeightAdapter()) {
+                    viewTypeHeightIndex.remove(positionStart, itemCount);
+                } else {
+                    viewHolderHeightIndex.remove(positionStart, itemCount);
+                }
+                invalidatePatchedScrollOffsets();
+            } else {
+                invalidateAllScrollOffsets();
+            }
         }
 
         @Override
         public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
-            invalidateAllScrollOffsets();
+            gridRowIndex.truncate(Math.min(fromPosition, toPosition));
+            if (isHeightIndexTracking(Math.max(fromPosition, toPosition) + itemCount)) {
+                if (isViewTypeHeightAdapter()) {
+                    viewTypeHeightIndex.move(fromPosition, toPosition, itemCount);
+                } else {
+                    viewHolderHeightIndex.move(fromPosition, toPosition, itemCount);
+                }
+                invalidatePatchedScrollOffsets();
+            } else {
+                invalidateAllScrollOffsets();
+            }
         }
     }
 
     private static class FastScrollPopup {
 
+        private static final int TEXT_BOUNDS_CACHE_SIZE = 64;
+        private static final int BUBBLE_CACHE_SIZE_IN_BYTES = 4 * 1024 * 1024;
+
         private final Resources resources;
         private final FastScrollRecyclerView fastScrollRecyclerView;
 
@@ -599,8 +1158,21 @@ public class FastScrollRecyclerView extends RecyclerView
         private final Rect backgroundRect;
         private final Paint backgroundPaint;
 
+        private final float[] radii;
+        private boolean isPathDirty;
+        private int pathWidth;
+        private int pathHeight;
+        private boolean isPathRtl;
+
         private final Paint textPaint;
+        private final Paint.FontMetrics fontMetrics;
         private final Rect textRect;
+        private final LinkedHashMap<String, Rect> textBoundsCache;
+
+        private final LruCache<String, Bitmap> bubbleCache;
+        private final Paint bubblePaint;
+        private boolean isBubbleCacheEnabled;
+        private boolean isBubbleCacheRtl;
 
         private final Rect invalidateRect;
         private final Rect tempRect;
@@ -626,13 +1198,30 @@ public class FastScrollRecyclerView extends RecyclerView
             this.backgroundRect = new Rect();
             this.backgroundPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
             this.backgroundColor = 0xff000000;
+            this.radii = new float[8];
+            this.isPathDirty = true;
 
             this.invalidateRect = new Rect();
             this.tempRect = new Rect();
             this.textPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
             this.textPaint.setAlpha(0);
+            this.fontMetrics = new Paint.FontMetrics();
 
             this.textRect = new Rect();
+            this.textBoundsCache = new LinkedHashMap<String, Rect>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Rect> eldest) {
+                    return size() > TEXT_BOUNDS_CACHE_SIZE;
+                }
+            };
+
+            this.bubbleCache = new LruCache<String, Bitmap>(BUBBLE_CACHE_SIZE_IN_BYTES) {
+                @Override
+                protected int sizeOf(String key, Bitmap value) {
+                    return value.getByteCount();
+                }
+            };
+            this.bubblePaint = new Paint(Paint.FILTER_BITMAP_FLAG);
 
             setTextSize(AndroidExt.convertSpToPx(this.resources, 32));
             setBackgroundSize(AndroidExt.convertDpToPx(this.resources, 62));
@@ -641,27 +1230,35 @@ public class FastScrollRecyclerView extends RecyclerView
         private void setBackgroundColor(int color) {
             this.backgroundColor = color;
             this.backgroundPaint.setColor(color);
+            this.bubbleCache.evictAll();
             this.fastScrollRecyclerView.invalidate(backgroundRect);
         }
 
         private void setTextColor(int color) {
             this.textPaint.setColor(color);
+            this.bubbleCache.evictAll();
             this.fastScrollRecyclerView.invalidate(backgroundRect);
         }
 
         private void setTextSize(int size) {
             this.textPaint.setTextSize(size);
+            this.textBoundsCache.clear();
+            this.bubbleCache.evictAll();
             this.fastScrollRecyclerView.invalidate(backgroundRect);
         }
 
         private void setBackgroundSize(int size) {
             this.backgroundSize = size;
             this.cornerRadius = (int) ((float) backgroundSize / 2f);
+            this.isPathDirty = true;
+            this.bubbleCache.evictAll();
             this.fastScrollRecyclerView.invalidate(backgroundRect);
         }
 
         private void setTypeface(Typeface typeface) {
             this.textPaint.setTypeface(typeface);
+            this.textBoundsCache.clear();
+            this.bubbleCache.evictAll();
             this.fastScrollRecyclerView.invalidate(backgroundRect);
         }
 
@@ -690,6 +1287,8 @@ public class FastScrollRecyclerView extends RecyclerView
 
         private void setPopupTextVerticalAlignmentMode(@FastScroller.PopupTextVerticalAlignmentMode int mode) {
             this.popupTextVerticalAlignmentMode = mode;
+            this.bubbleCache.evictAll();
+            this.fastScrollRecyclerView.invalidate(backgroundRect);
         }
 
         @FastScroller.PopupTextVerticalAlignmentMode
@@ -699,6 +1298,8 @@ public class FastScrollRecyclerView extends RecyclerView
 
         private void setPopupPosition(@FastScroller.PopupPosition int position) {
             this.popupPosition = position;
+            this.isPathDirty = true;
+            this.bubbleCache.evictAll();
         }
 
         @FastScroller.PopupPosition
@@ -706,62 +1307,120 @@ public class FastScrollRecyclerView extends RecyclerView
             return this.popupPosition;
         }
 
-        private float[] createRadii() {
+        private void updateRadii(boolean isRtl) {
+            Arrays.fill(radii, cornerRadius);
             if (popupPosition == FastScroller.PopupPosition.CENTER) {
-                return new float[]{cornerRadius, cornerRadius, cornerRadius, cornerRadius,
-                        cornerRadius, cornerRadius, cornerRadius, cornerRadius};
+                return;
             }
 
-            if (AndroidExt.isRtl(resources)) {
-                return new float[]{cornerRadius, cornerRadius, cornerRadius, cornerRadius,
-                        cornerRadius, cornerRadius, 0, 0};
+            if (isRtl) {
+                radii[6] = 0;
+                radii[7] = 0;
             } else {
-                return new float[]{cornerRadius, cornerRadius, cornerRadius, cornerRadius,
-                        0, 0, cornerRadius, cornerRadius};
+                radii[4] = 0;
+                radii[5] = 0;
+            }
+        }
+
+        private void updateBackgroundPath() {
+            // The path is drawn at the origin, so it only changes with the size, corners and direction
+            boolean isRtl = AndroidExt.isRtl(resources);
+            if (!isPathDirty && pathWidth == backgroundRect.width()
+                    && pathHeight == backgroundRect.height() && isPathRtl == isRtl) {
+                return;
+            }
+            isPathDirty = false;
+            pathWidth = backgroundRect.width();
+            pathHeight = backgroundRect.height();
+            isPathRtl = isRtl;
+
+            updateRadii(isRtl);
+            tempRect.set(backgroundRect);
+            tempRect.offsetTo(0, 0);
+            backgroundPath.reset();
+            backgroundRectF.set(tempRect);
+            backgroundPath.addRoundRect(backgroundRectF, radii, Path.Direction.CW);
+        }
+
+        private void setBubbleCacheEnabled(boolean enabled) {
+            this.isBubbleCacheEnabled = enabled;
+            if (!enabled) {
+                this.bubbleCache.evictAll();
             }
         }
 
         private void draw(Canvas canvas) {
             if (isVisible()) {
+                if (isBubbleCacheEnabled && !backgroundRect.isEmpty()) {
+                    bubblePaint.setAlpha((int) (alpha * 255));
+                    canvas.drawBitmap(getBubbleBitmap(), backgroundRect.left, backgroundRect.top, bubblePaint);
+                    return;
+                }
                 int restoreCount = canvas.save();
-                float[] radii = createRadii();
                 canvas.translate(backgroundRect.left, backgroundRect.top);
-                tempRect.set(backgroundRect);
-                tempRect.offsetTo(0, 0);
-
-                backgroundPath.reset();
-                backgroundRectF.set(tempRect);
-                backgroundPath.addRoundRect(backgroundRectF, radii, Path.Direction.CW);
-                backgroundPaint.setAlpha((int) (Color.alpha(backgroundColor) * alpha));
-
-                float baselinePosition;
-                if (popupTextVerticalAlignmentMode == FastScroller.PopupTextVerticalAlignmentMode.FONT_METRICS) {
-                    Paint.FontMetrics fontMetrics = textPaint.getFontMetrics();
-                    baselinePosition = (backgroundRect.height() - fontMetrics.ascent - fontMetrics.descent) / 2f;
-                } else {
-                    baselinePosition = (float) (backgroundRect.height() + textRect.height()) / 2f;
-                }
-
-                textPaint.setAlpha((int) (alpha * 255));
-                canvas.drawPath(backgroundPath, backgroundPaint);
-                canvas.drawText(
-                        sectionName,
-                        (float) (backgroundRect.width() - textRect.width()) / 2f,
-                        baselinePosition,
-                        textPaint
-                );
+                drawBubble(canvas, (int) (Color.alpha(backgroundColor) * alpha), (int) (alpha * 255));
                 canvas.restoreToCount(restoreCount);
             }
         }
 
+        private void drawBubble(Canvas canvas, int backgroundAlpha, int textAlpha) {
+            updateBackgroundPath();
+            backgroundPaint.setAlpha(backgroundAlpha);
+
+            float baselinePosition;
+            if (popupTextVerticalAlignmentMode == FastScroller.PopupTextVerticalAlignmentMode.FONT_METRICS) {
+                textPaint.getFontMetrics(fontMetrics);
+                baselinePosition = (backgroundRect.height() - fontMetrics.ascent - fontMetrics.descent) / 2f;
+            } else {
+                baselinePosition = (float) (backgroundRect.height() + textRect.height()) / 2f;
+            }
+
+            textPaint.setAlpha(textAlpha);
+            canvas.drawPath(backgroundPath, backgroundPaint);
+            canvas.drawText(
+                    sectionName,
+                    (float) (backgroundRect.width() - textRect.width()) / 2f,
+                    baselinePosition,
+                    textPaint
+            );
+        }
+
+        private Bitmap getBubbleBitmap() {
+            boolean isRtl = AndroidExt.isRtl(resources);
+            if (isBubbleCacheRtl != isRtl) {
+                isBubbleCacheRtl = isRtl;
+                bubbleCache.evictAll();
+            }
+            Bitmap bubble = bubbleCache.get(sectionName);
+            if (bubble == null || bubble.getWidth() != backgroundRect.width()
+                    || bubble.getHeight() != backgroundRect.height()) {
+                // Rendered fully opaque once, the fade animation is applied while blitting
+                bubble = Bitmap.createBitmap(backgroundRect.width(), backgroundRect.height(),
+                        Bitmap.Config.ARGB_8888);
+                drawBubble(new Canvas(bubble), Color.alpha(backgroundColor), 255);
+                bubbleCache.put(sectionName, bubble);
+            }
+            return bubble;
+        }
+
         private void setSectionName(String sectionName) {
             if (!TextUtils.isEmpty(sectionName) && !sectionName.equals(this.sectionName)) {
                 this.sectionName = sectionName;
-                textPaint.getTextBounds(sectionName, 0, sectionName.length(), textRect);
-                textRect.right = (int) (textRect.left + textPaint.measureText(sectionName));
+                Rect textBounds = textBoundsCache.get(sectionName);
+                if (textBounds == null) {
+                    textBounds = new Rect();
+                    textPaint.getTextBounds(sectionName, 0, sectionName.length(), textBounds);
+                    textBounds.right = (int) (textBounds.left + textPaint.measureText(sectionName));
+                    textBoundsCache.put(sectionName, textBounds);
+                }
+                textRect.set(textBounds);
             }
         }
 
+        private void clearTextBoundsCache() {
+            textBoundsCache.clear();
+        }
+
         private Rect updateFastScrollerBounds(FastScrollRecyclerView recyclerView, int thumbOffsetY) {
             invalidateRect.set(backgroundRect);
 
@@ -841,6 +1500,11 @@ public class FastScrollRecyclerView extends RecyclerView
 
         private boolean isDragging;
 
+        private boolean isFrameCoalescingEnabled;
+        private boolean isDragFramePosted;
+        private float pendingTouchFraction;
+        private final Choreographer.FrameCallback dragFrameCallback;
+
         private Animator autoHideAnimator;
         private boolean isAnimating;
         private int autoHideDelay;
@@ -963,6 +1627,16 @@ public class FastScrollRecyclerView extends RecyclerView
                 }
             };
 
+            this.dragFrameCallback = new Choreographer.FrameCallback() {
+                @Override
+                public void doFrame(long frameTimeNanos) {
+                    isDragFramePosted = false;
+                    if (isDragging) {
+                        scrollToTouchFraction(pendingTouchFraction);
+                    }
+                }
+            };
+
             this.fastScrollRecyclerView.addOnScrollListener(new OnScrollListener() {
                 @Override
                 public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
@@ -1019,9 +1693,15 @@ public class FastScrollRecyclerView extends RecyclerView
                         this.isDragging = true;
                         this.touchOffset += (lastKnownPositionY - currentPositionY);
                         this.fastScrollPopup.animateVisibility(true);
+                        this.fastScrollRecyclerView.fastScrollSessionRecorder.start();
+                        this.fastScrollRecyclerView.viewHolderPrefetcher.start();
                         if (stateChangeListener != null) {
                             stateChangeListener.onFastScrollStart();
                         }
+                        if (this.fastScrollRecyclerView.getAdapter() instanceof OnFastScrollStateChangeListener) {
+                            ((OnFastScrollStateChangeListener) this.fastScrollRecyclerView.getAdapter())
+                                    .onFastScrollStart();
+                        }
                         if (this.isThumbInactiveEnabled) {
                             this.thumbPaint.setColor(thumbActiveColor);
                         }
@@ -1030,27 +1710,54 @@ public class FastScrollRecyclerView extends RecyclerView
                         boolean layoutManagerReversed = this.fastScrollRecyclerView.isLayoutManagerReversed();
                         int bottom = this.fastScrollRecyclerView.getHeight() - this.thumbHeight;
                         float boundedY = (float) Math.max(0, Math.min(bottom, y - this.touchOffset));
+                        if (this.fastScrollRecyclerView.fastScrollSessionRecorder.isRecording()) {
+                            this.fastScrollRecyclerView.fastScrollSessionRecorder.onScrub(boundedY);
+                        }
 
                         float touchFraction = boundedY / (float) bottom;
                         if (layoutManagerReversed) {
                             touchFraction = 1 - touchFraction;
                         }
-
-                        String sectionName = this.fastScrollRecyclerView.scrollToPositionAtProgress(touchFraction);
-                        this.fastScrollPopup.setSectionName(sectionName);
-                        this.fastScrollPopup.animateVisibility(!TextUtils.isEmpty(sectionName));
-                        this.fastScrollRecyclerView.invalidate(this.fastScrollPopup
-                                .updateFastScrollerBounds(this.fastScrollRecyclerView, this.thumbPositionPoint.y));
+                        this.fastScrollRecyclerView.viewHolderPrefetcher.onDrag(touchFraction);
+
+                        if (this.isFrameCoalescingEnabled) {
+                            // Only the latest sample of a frame is scrolled to, on the next vsync
+                            this.pendingTouchFraction = touchFraction;
+                            if (!this.isDragFramePosted) {
+                                this.isDragFramePosted = true;
+                                Choreographer.getInstance().postFrameCallback(this.dragFrameCallback);
+                            }
+                        } else {
+                            scrollToTouchFraction(touchFraction);
+                        }
                     }
                     break;
                 case MotionEvent.ACTION_UP:
                 case MotionEvent.ACTION_CANCEL:
                     this.touchOffset = 0;
+                    if (this.isDragFramePosted) {
+                        this.isDragFramePosted = false;
+                        Choreographer.getInstance().removeFrameCallback(this.dragFrameCallback);
+                        if (this.isDragging) {
+                            scrollToTouchFraction(this.pendingTouchFraction);
+                        }
+                    }
                     if (this.isDragging) {
                         this.isDragging = false;
                         this.fastScrollPopup.animateVisibility(false);
+                        this.fastScrollRecyclerView.viewHolderPrefetcher.stop();
+                        Display display = this.fastScrollRecyclerView.getDisplay();
+                        FastScrollSessionStats sessionStats = this.fastScrollRecyclerView.fastScrollSessionRecorder
+                                .stop(display != null ? display.getRefreshRate() : 0);
                         if (stateChangeListener != null) {
                             stateChangeListener.onFastScrollStop();
+                            if (sessionStats != null) {
+                                stateChangeListener.onFastScrollStop(sessionStats);
+                            }
+                        }
+                        if (this.fastScrollRecyclerView.getAdapter() instanceof OnFastScrollStateChangeListener) {
+                            ((OnFastScrollStateChangeListener) this.fastScrollRecyclerView.getAdapter())
+                                    .onFastScrollStop();
                         }
                     }
                     if (this.isThumbInactiveEnabled) {
@@ -1060,6 +1767,18 @@ public class FastScrollRecyclerView extends RecyclerView
             }
         }
 
+        private void scrollToTouchFraction(float touchFraction) {
+            String sectionName = this.fastScrollRecyclerView.scrollToPositionAtProgress(touchFraction);
+            this.fastScrollPopup.setSectionName(sectionName);
+            this.fastScrollPopup.animateVisibility(!TextUtils.isEmpty(sectionName));
+            this.fastScrollRecyclerView.invalidate(this.fastScrollPopup
+                    .updateFastScrollerBounds(this.fastScrollRecyclerView, this.thumbPositionPoint.y));
+        }
+
+        private void setFrameCoalescingEnabled(boolean enabled) {
+            this.isFrameCoalescingEnabled = enabled;
+        }
+
         private void draw(Canvas canvas) {
             if (this.thumbPositionPoint.x < 0 || this.thumbPositionPoint.y < 0) {
                 return;
@@ -1228,6 +1947,14 @@ public class FastScrollRecyclerView extends RecyclerView
             this.fastScrollPopup.setTextSize(size);
         }
 
+        private void setPopupBubbleCacheEnabled(boolean enabled) {
+            this.fastScrollPopup.setBubbleCacheEnabled(enabled);
+        }
+
+        private void invalidateSectionNames() {
+            this.fastScrollPopup.clearTextBoundsCache();
+        }
+
         private void setAutoHideDelay(int hideDelay) {
             this.autoHideDelay = hideDelay;
             if (this.isAutoHideEnabled) {
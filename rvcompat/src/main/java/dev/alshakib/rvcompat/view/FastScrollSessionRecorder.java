@@ -0,0 +1,145 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Al Shakib (shakib@alshakib.dev)
+ *
+ * This file is part of Recycler View Compat
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.alshakib.rvcompat.view;
+
+import android.view.Choreographer;
+
+import androidx.annotation.Nullable;
+
+import java.util.Arrays;
+
+final class FastScrollSessionRecorder {
+    private static final float DEFAULT_REFRESH_RATE = 60f;
+
+    private final Choreographer.FrameCallback frameCallback;
+
+    private boolean isEnabled;
+    private boolean isRecording;
+    private long[] frameTimes;
+    private int frameCount;
+    private long startNanos;
+    private long lastFrameTimeNanos;
+    private float lastScrubPosition;
+    private float scrubDistance;
+    private int lastScrollPosition;
+    private long itemsJumped;
+    private int scrollToPositionCount;
+
+    FastScrollSessionRecorder() {
+        this.frameTimes = new long[128];
+        this.frameCallback = new Choreographer.FrameCallback() {
+            @Override
+            public void doFrame(long frameTimeNanos) {
+                if (!isRecording) {
+                    return;
+                }
+                if (lastFrameTimeNanos != 0) {
+                    if (frameCount == frameTimes.length) {
+                        frameTimes = Arrays.copyOf(frameTimes, frameTimes.length * 2);
+                    }
+                    frameTimes[frameCount++] = frameTimeNanos - lastFrameTimeNanos;
+                }
+                lastFrameTimeNanos = frameTimeNanos;
+                Choreographer.getInstance().postFrameCallback(this);
+            }
+        };
+    }
+
+    void setEnabled(boolean enabled) {
+        isEnabled = enabled;
+        if (!enabled && isRecording) {
+            isRecording = false;
+            Choreographer.getInstance().removeFrameCallback(frameCallback);
+        }
+    }
+
+    boolean isRecording() {
+        return isRecording;
+    }
+
+    void start() {
+        if (!isEnabled || isRecording) {
+            return;
+        }
+        isRecording = true;
+        frameCount = 0;
+        startNanos = System.nanoTime();
+        lastFrameTimeNanos = 0;
+        lastScrubPosition = -1;
+        scrubDistance = 0;
+        lastScrollPosition = -1;
+        itemsJumped = 0;
+        scrollToPositionCount = 0;
+        Choreographer.getInstance().postFrameCallback(frameCallback);
+    }
+
+    void onScrub(float scrubPosition) {
+        if (lastScrubPosition >= 0) {
+            scrubDistance += Math.abs(scrubPosition - lastScrubPosition);
+        }
+        lastScrubPosition = scrubPosition;
+    }
+
+    void onScrollToPosition(int position) {
+        if (lastScrollPosition >= 0) {
+            itemsJumped += Math.abs(position - lastScrollPosition);
+        }
+        lastScrollPosition = position;
+        ++scrollToPositionCount;
+    }
+
+    @Nullable
+    FastScrollSessionStats stop(float refreshRate) {
+        if (!isRecording) {
+            return null;
+        }
+        isRecording = false;
+        Choreographer.getInstance().removeFrameCallback(frameCallback);
+        long expectedFrameIntervalNanos = (long) (1_000_000_000L
+                / (refreshRate > 0 ? refreshRate : DEFAULT_REFRESH_RATE));
+        int droppedFrameCount = 0;
+        for (int i = 0; i < frameCount; ++i) {
+            // A frame that took n vsync intervals hid n - 1 frames
+            droppedFrameCount += Math.max(0, Math.round((float) frameTimes[i] / expectedFrameIntervalNanos) - 1);
+        }
+        long[] sortedFrameTimes = Arrays.copyOf(frameTimes, frameCount);
+        Arrays.sort(sortedFrameTimes);
+        return new FastScrollSessionStats(System.nanoTime() - startNanos, expectedFrameIntervalNanos,
+                frameCount, droppedFrameCount, getPercentile(sortedFrameTimes, 50),
+                getPercentile(sortedFrameTimes, 95), getPercentile(sortedFrameTimes, 99),
+                scrubDistance, itemsJumped, scrollToPositionCount);
+    }
+
+    private static long getPercentile(long[] sortedValues, int percentile) {
+        if (sortedValues.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(sortedValues.length * percentile / 100.0);
+        return sortedValues[Math.max(0, rank - 1)];
+    }
+}
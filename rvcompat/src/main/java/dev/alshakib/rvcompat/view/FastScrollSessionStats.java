@@ -0,0 +1,98 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Al Shakib (shakib@alshakib.dev)
+ *
+ * This file is part of Recycler View Compat
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.alshakib.rvcompat.view;
+
+public final class FastScrollSessionStats {
+    private final long durationNanos;
+    private final long expectedFrameIntervalNanos;
+    private final int frameCount;
+    private final int droppedFrameCount;
+    private final long p50FrameTimeNanos;
+    private final long p95FrameTimeNanos;
+    private final long p99FrameTimeNanos;
+    private final float scrubDistance;
+    private final long itemsJumped;
+    private final int scrollToPositionCount;
+
+    FastScrollSessionStats(long durationNanos, long expectedFrameIntervalNanos, int frameCount,
+                           int droppedFrameCount, long p50FrameTimeNanos, long p95FrameTimeNanos,
+                           long p99FrameTimeNanos, float scrubDistance, long itemsJumped,
+                           int scrollToPositionCount) {
+        this.durationNanos = durationNanos;
+        this.expectedFrameIntervalNanos = expectedFrameIntervalNanos;
+        this.frameCount = frameCount;
+        this.droppedFrameCount = droppedFrameCount;
+        this.p50FrameTimeNanos = p50FrameTimeNanos;
+        this.p95FrameTimeNanos = p95FrameTimeNanos;
+        this.p99FrameTimeNanos = p99FrameTimeNanos;
+        this.scrubDistance = scrubDistance;
+        this.itemsJumped = itemsJumped;
+        this.scrollToPositionCount = scrollToPositionCount;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public long getExpectedFrameIntervalNanos() {
+        return expectedFrameIntervalNanos;
+    }
+
+    public int getFrameCount() {
+        return frameCount;
+    }
+
+    public int getDroppedFrameCount() {
+        return droppedFrameCount;
+    }
+
+    public long getP50FrameTimeNanos() {
+        return p50FrameTimeNanos;
+    }
+
+    public long getP95FrameTimeNanos() {
+        return p95FrameTimeNanos;
+    }
+
+    public long getP99FrameTimeNanos() {
+        return p99FrameTimeNanos;
+    }
+
+    // Distance the thumb travelled, in pixels
+    public float getScrubDistance() {
+        return scrubDistance;
+    }
+
+    public long getItemsJumped() {
+        return itemsJumped;
+    }
+
+    public int getScrollToPositionCount() {
+        return scrollToPositionCount;
+    }
+}
@@ -0,0 +1,260 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Al Shakib (shakib@alshakib.dev)
+ *
+ * This file is part of Recycler View Compat
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.alshakib.rvcompat.view;
+
+import java.util.Arrays;
+
+// Rows inserted, reset or marked dirty keep a flag until they get a height again, the flags
+// travel with their rows so updates can be recorded now and measured once the adapter settles
+final class FenwickHeightIndex implements HeightIndex {
+    private static final int[] EMPTY = new int[0];
+
+    private int[] heights;
+    private int[] tree;
+    private boolean[] isDirty;
+    private int size;
+    private boolean isTreeValid;
+    private int dirtyStart;
+    private int dirtyEnd;
+
+    FenwickHeightIndex() {
+        this.heights = EMPTY;
+        this.tree = new int[1];
+        this.isDirty = new boolean[0];
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    void clear() {
+        this.size = 0;
+        this.isTreeValid = false;
+        this.dirtyStart = 0;
+        this.dirtyEnd = 0;
+    }
+
+    void reset(int size) {
+        if (this.heights.length < size) {
+            this.heights = new int[size];
+            this.tree = new int[size + 1];
+            this.isDirty = new boolean[size];
+        } else {
+            Arrays.fill(this.heights, 0, size, 0);
+        }
+        Arrays.fill(this.isDirty, 0, size, true);
+        this.size = size;
+        this.isTreeValid = false;
+        this.dirtyStart = 0;
+        this.dirtyEnd = size;
+    }
+
+    void insert(int start, int count) {
+        if (this.heights.length < this.size + count) {
+            int capacity = Math.max(this.size + count, this.heights.length * 2);
+            this.heights = Arrays.copyOf(this.heights, capacity);
+            this.tree = new int[capacity + 1];
+            this.isDirty = Arrays.copyOf(this.isDirty, capacity);
+        }
+        System.arraycopy(this.heights, start, this.heights, start + count, this.size - start);
+        System.arraycopy(this.isDirty, start, this.isDirty, start + count, this.size - start);
+        Arrays.fill(this.heights, start, start + count, 0);
+        this.size += count;
+        this.isTreeValid = false;
+        if (hasDirtyRange()) {
+            if (this.dirtyStart >= start) {
+                this.dirtyStart += count;
+            }
+            if (this.dirtyEnd > start) {
+                this.dirtyEnd += count;
+            }
+        }
+        markDirty(start, count);
+    }
+
+    void remove(int start, int count) {
+        System.arraycopy(this.heights, start + count, this.heights, start, this.size - start - count);
+        System.arraycopy(this.isDirty, start + count, this.isDirty, start, this.size - start - count);
+        this.size -= count;
+        this.isTreeValid = false;
+        if (hasDirtyRange()) {
+            if (this.dirtyStart > start) {
+                this.dirtyStart = Math.max(start, this.dirtyStart - count);
+            }
+            if (this.dirtyEnd > start) {
+                this.dirtyEnd = Math.max(start, this.dirtyEnd - count);
+            }
+        }
+    }
+
+    void move(int from, int to, int count) {
+        if (from == to) {
+            return;
+        }
+        int[] movedHeights = Arrays.copyOfRange(this.heights, from, from + count);
+        boolean[] movedIsDirty = Arrays.copyOfRange(this.isDirty, from, from + count);
+        // Shift the items between both ends towards the vacated range, then drop the moved block in
+        if (from < to) {
+            for (int i = from; i < to; ++i) {
+                moveRow(i, this.heights[i + count], this.isDirty[i + count]);
+            }
+        } else {
+            for (int i = from + count - 1; i >= to + count; --i) {
+                moveRow(i, this.heights[i - count], this.isDirty[i - count]);
+            }
+        }
+        for (int i = 0; i < count; ++i) {
+            moveRow(to + i, movedHeights[i], movedIsDirty[i]);
+        }
+        int low = Math.min(from, to);
+        int high = Math.max(from, to) + count;
+        if (hasDirtyRange() && this.dirtyStart < high && this.dirtyEnd > low) {
+            // Dirty rows may have travelled anywhere inside the shuffled span
+            this.dirtyStart = Math.min(this.dirtyStart, low);
+            this.dirtyEnd = Math.max(this.dirtyEnd, high);
+        }
+    }
+
+    // Flags rows whose heights went stale, they are measured again on the next remeasure pass
+    void markDirty(int start, int count) {
+        if (count <= 0) {
+            return;
+        }
+        Arrays.fill(this.isDirty, start, start + count, true);
+        if (hasDirtyRange()) {
+            this.dirtyStart = Math.min(this.dirtyStart, start);
+            this.dirtyEnd = Math.max(this.dirtyEnd, start + count);
+        } else {
+            this.dirtyStart = start;
+            this.dirtyEnd = start + count;
+        }
+    }
+
+    boolean hasDirtyRange() {
+        return this.dirtyStart < this.dirtyEnd;
+    }
+
+    // Dirty rows all live inside [getDirtyStart(), getDirtyEnd()), rows in between may be clean
+    int getDirtyStart() {
+        return this.dirtyStart;
+    }
+
+    int getDirtyEnd() {
+        return this.dirtyEnd;
+    }
+
+    boolean isDirty(int index) {
+        return this.isDirty[index];
+    }
+
+    // Forgets the dirty range once every row inside it has been given a height
+    void clearDirtyRange() {
+        Arrays.fill(this.isDirty, this.dirtyStart, this.dirtyEnd, false);
+        this.dirtyStart = 0;
+        this.dirtyEnd = 0;
+    }
+
+    int getHeight(int index) {
+        return this.heights[index];
+    }
+
+    void setHeight(int index, int height) {
+        this.isDirty[index] = false;
+        updateHeight(index, height);
+    }
+
+    private void moveRow(int index, int height, boolean isDirty) {
+        this.isDirty[index] = isDirty;
+        updateHeight(index, height);
+    }
+
+    private void updateHeight(int index, int height) {
+        int delta = height - this.heights[index];
+        this.heights[index] = height;
+        if (delta == 0 || !this.isTreeValid) {
+            return;
+        }
+        for (int i = index + 1; i <= this.size; i += i & -i) {
+            this.tree[i] += delta;
+        }
+    }
+
+    // Sum of the heights of every item before the given index
+    @Override
+    public int getOffset(int index) {
+        ensureTree();
+        int sum = 0;
+        for (int i = Math.max(0, Math.min(index, this.size)); i > 0; i -= i & -i) {
+            sum += this.tree[i];
+        }
+        return sum;
+    }
+
+    @Override
+    public int getTotalHeight() {
+        return getOffset(this.size);
+    }
+
+    // Index of the item covering the given offset, the bottom edge of the last item is inclusive
+    @Override
+    public int findIndex(int offset) {
+        if (offset < 0 || this.size == 0) {
+            return -1;
+        }
+        ensureTree();
+        int index = 0;
+        int remaining = offset;
+        for (int step = Integer.highestOneBit(this.size); step > 0; step >>= 1) {
+            int next = index + step;
+            if (next <= this.size && this.tree[next] <= remaining) {
+                index = next;
+                remaining -= this.tree[next];
+            }
+        }
+        if (index < this.size) {
+            return index;
+        }
+        return remaining == 0 ? this.size - 1 : -1;
+    }
+
+    private void ensureTree() {
+        if (this.isTreeValid) {
+            return;
+        }
+        // Linear time construction, every node pushes its partial sum to its parent once
+        System.arraycopy(this.heights, 0, this.tree, 1, this.size);
+        for (int i = 1; i <= this.size; ++i) {
+            int parent = i + (i & -i);
+            if (parent <= this.size) {
+                this.tree[parent] += this.tree[i];
+            }
+        }
+        this.isTreeValid = true;
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Al Shakib (shakib@alshakib.dev)
+ *
+ * This file is part of Recycler View Compat
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.alshakib.rvcompat.view;
+
+import java.util.Arrays;
+
+// First adapter position of every grid row, laid out the same way GridLayoutManager fills spans
+final class GridRowIndex {
+    private int[] rowStarts;
+    private int rowCount;
+    private int size;
+    private int spanCount;
+
+    GridRowIndex() {
+        this.rowStarts = new int[16];
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    int getSpanCount() {
+        return this.spanCount;
+    }
+
+    int getRowCount() {
+        return this.rowCount;
+    }
+
+    void clear() {
+        this.rowCount = 0;
+        this.size = 0;
+    }
+
+    // Forgets the row holding the position and everything after it, earlier rows stay valid
+    void truncate(int position) {
+        if (position >= this.size) {
+            return;
+        }
+        if (position <= 0) {
+            clear();
+            return;
+        }
+        int row = getRow(position);
+        this.rowCount = row;
+        this.size = this.rowStarts[row];
+    }
+
+    void extend(int itemCount, int spanCount, SpanSizes spanSizes) {
+        if (this.spanCount != spanCount) {
+            this.spanCount = spanCount;
+            clear();
+        }
+        if (this.size >= itemCount) {
+            return;
+        }
+        if (this.rowCount > 0) {
+            // The last row may have free spans left, lay it out again
+            this.size = this.rowStarts[--this.rowCount];
+        }
+        int spanIndex = spanCount;
+        for (int i = this.size; i < itemCount; ++i) {
+            int spanSize = Math.min(spanCount, Math.max(1, spanSizes.getSpanSize(i)));
+            if (spanIndex + spanSize > spanCount) {
+                if (this.rowCount == this.rowStarts.length) {
+                    this.rowStarts = Arrays.copyOf(this.rowStarts, this.rowCount * 2);
+                }
+                this.rowStarts[this.rowCount++] = i;
+                spanIndex = 0;
+            }
+            spanIndex += spanSize;
+        }
+        this.size = itemCount;
+    }
+
+    int getRow(int position) {
+        int low = 0;
+        int high = this.rowCount - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (this.rowStarts[mid] <= position) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    int getFirstPosition(int row) {
+        return this.rowStarts[Math.max(0, Math.min(row, this.rowCount - 1))];
+    }
+
+    interface SpanSizes {
+        int getSpanSize(int position);
+    }
+}
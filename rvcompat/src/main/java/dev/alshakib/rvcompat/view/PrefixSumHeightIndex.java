@@ -0,0 +1,171 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Al Shakib (shakib@alshakib.dev)
+ *
+ * This file is part of Recycler View Compat
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.alshakib.rvcompat.view;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Immutable cumulative heights, built in parallel and safe to publish across threads
+final class PrefixSumHeightIndex implements HeightIndex {
+    private static final int CHUNK_SIZE = 4096;
+
+    private final int[] offsets;
+    private final int size;
+
+    private PrefixSumHeightIndex(int[] offsets, int size) {
+        this.offsets = offsets;
+        this.size = size;
+    }
+
+    // Returns null when the build got cancelled half way
+    static PrefixSumHeightIndex build(int size, Heights heights, ForkJoinPool pool,
+                                      AtomicBoolean isCancelled) {
+        int[] offsets = new int[size + 1];
+        int[] chunkOffsets = new int[(size + CHUNK_SIZE - 1) / CHUNK_SIZE];
+
+        // First pass measures every chunk, second pass turns heights into offsets per chunk
+        pool.invoke(new PrefixSumTask(size, heights, offsets, chunkOffsets, 0,
+                chunkOffsets.length, false, isCancelled));
+        if (isCancelled.get()) {
+            return null;
+        }
+        int runningOffset = 0;
+        for (int i = 0; i < chunkOffsets.length; ++i) {
+            int chunkHeight = chunkOffsets[i];
+            chunkOffsets[i] = runningOffset;
+            runningOffset += chunkHeight;
+        }
+        pool.invoke(new PrefixSumTask(size, heights, offsets, chunkOffsets, 0,
+                chunkOffsets.length, true, isCancelled));
+        if (isCancelled.get()) {
+            return null;
+        }
+        return new PrefixSumHeightIndex(offsets, size);
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    int getHeight(int index) {
+        return this.offsets[index + 1] - this.offsets[index];
+    }
+
+    @Override
+    public int getOffset(int index) {
+        return this.offsets[Math.max(0, Math.min(index, this.size))];
+    }
+
+    @Override
+    public int getTotalHeight() {
+        return this.offsets[this.size];
+    }
+
+    @Override
+    public int findIndex(int offset) {
+        if (offset < 0 || this.size == 0) {
+            return -1;
+        }
+        if (offset >= getTotalHeight()) {
+            return offset == getTotalHeight() ? this.size - 1 : -1;
+        }
+        int low = 0;
+        int high = this.size - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (this.offsets[mid] <= offset) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    interface Heights {
+        int getHeight(int position);
+    }
+
+    private static final class PrefixSumTask extends RecursiveAction {
+        private final int size;
+        private final Heights heights;
+        private final int[] offsets;
+        private final int[] chunkOffsets;
+        private final int fromChunk;
+        private final int toChunk;
+        private final boolean isScanPass;
+        private final AtomicBoolean isCancelled;
+
+        private PrefixSumTask(int size, Heights heights, int[] offsets, int[] chunkOffsets,
+                              int fromChunk, int toChunk, boolean isScanPass,
+                              AtomicBoolean isCancelled) {
+            this.size = size;
+            this.heights = heights;
+            this.offsets = offsets;
+            this.chunkOffsets = chunkOffsets;
+            this.fromChunk = fromChunk;
+            this.toChunk = toChunk;
+            this.isScanPass = isScanPass;
+            this.isCancelled = isCancelled;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.isCancelled.get() || this.fromChunk >= this.toChunk) {
+                return;
+            }
+            if (this.toChunk - this.fromChunk > 1) {
+                int mid = (this.fromChunk + this.toChunk) >>> 1;
+                invokeAll(new PrefixSumTask(this.size, this.heights, this.offsets, this.chunkOffsets,
+                                this.fromChunk, mid, this.isScanPass, this.isCancelled),
+                        new PrefixSumTask(this.size, this.heights, this.offsets, this.chunkOffsets,
+                                mid, this.toChunk, this.isScanPass, this.isCancelled));
+                return;
+            }
+            int start = this.fromChunk * CHUNK_SIZE;
+            int end = Math.min(this.size, start + CHUNK_SIZE);
+            if (this.isScanPass) {
+                int runningOffset = this.chunkOffsets[this.fromChunk];
+                for (int i = start; i < end; ++i) {
+                    runningOffset += this.offsets[i + 1];
+                    this.offsets[i + 1] = runningOffset;
+                }
+            } else {
+                int chunkHeight = 0;
+                for (int i = start; i < end; ++i) {
+                    int height = this.heights.getHeight(i);
+                    this.offsets[i + 1] = height;
+                    chunkHeight += height;
+                }
+                this.chunkOffsets[this.fromChunk] = chunkHeight;
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Al Shakib (shakib@alshakib.dev)
+ *
+ * This file is part of Recycler View Compat
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.alshakib.rvcompat.view;
+
+// Bounded cache of position ranges known to share a section name. Ranges only grow over positions
+// that were actually resolved, unless merging across gaps is turned on for lists whose sections
+// are contiguous, where two positions with the same name imply every position between them
+final class SectionNameCache {
+    private final int[] starts;
+    private final int[] ends;
+    private final String[] names;
+    private int count;
+    private int nextEviction;
+    private boolean isMergingAcrossGaps;
+
+    SectionNameCache(int capacity) {
+        this.starts = new int[capacity];
+        this.ends = new int[capacity];
+        this.names = new String[capacity];
+    }
+
+    void setMergingAcrossGaps(boolean mergingAcrossGaps) {
+        if (this.isMergingAcrossGaps != mergingAcrossGaps) {
+            this.isMergingAcrossGaps = mergingAcrossGaps;
+            clear();
+        }
+    }
+
+    String get(int position) {
+        for (int i = 0; i < this.count; ++i) {
+            if (this.starts[i] <= position && position <= this.ends[i]) {
+                return this.names[i];
+            }
+        }
+        return null;
+    }
+
+    void put(int position, String name) {
+        // Closest cached range on either side of the position, ranges never overlap
+        int before = -1;
+        int after = -1;
+        for (int i = 0; i < this.count; ++i) {
+            if (this.starts[i] <= position && position <= this.ends[i]) {
+                return;
+            }
+            if (this.ends[i] < position && (before < 0 || this.ends[i] > this.ends[before])) {
+                before = i;
+            } else if (this.starts[i] > position && (after < 0 || this.starts[i] < this.starts[after])) {
+                after = i;
+            }
+        }
+        boolean isBeforeSameSection = before >= 0 && name.equals(this.names[before])
+                && (this.isMergingAcrossGaps || this.ends[before] == position - 1);
+        boolean isAfterSameSection = after >= 0 && name.equals(this.names[after])
+                && (this.isMergingAcrossGaps || this.starts[after] == position + 1);
+        if (isBeforeSameSection && isAfterSameSection) {
+            this.ends[before] = this.ends[after];
+            removeAt(after);
+            return;
+        }
+        if (isBeforeSameSection) {
+            this.ends[before] = position;
+            return;
+        }
+        if (isAfterSameSection) {
+            this.starts[after] = position;
+            return;
+        }
+        int index;
+        if (this.count < this.names.length) {
+            index = this.count++;
+        } else {
+            index = this.nextEviction;
+            this.nextEviction = (this.nextEviction + 1) % this.names.length;
+        }
+        this.starts[index] = position;
+        this.ends[index] = position;
+        this.names[index] = name;
+    }
+
+    int size() {
+        return this.count;
+    }
+
+    void clear() {
+        for (int i = 0; i < this.count; ++i) {
+            this.names[i] = null;
+        }
+        this.count = 0;
+        this.nextEviction = 0;
+    }
+
+    private void removeAt(int index) {
+        int last = --this.count;
+        this.starts[index] = this.starts[last];
+        this.ends[index] = this.ends[last];
+        this.names[index] = this.names[last];
+        this.names[last] = null;
+        if (this.nextEviction >= this.count) {
+            this.nextEviction = 0;
+        }
+    }
+}
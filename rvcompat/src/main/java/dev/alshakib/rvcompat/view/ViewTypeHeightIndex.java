@@ -0,0 +1,319 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Al Shakib (shakib@alshakib.dev)
+ *
+ * This file is part of Recycler View Compat
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.alshakib.rvcompat.view;
+
+import java.util.Arrays;
+
+// Run-length index of consecutive items sharing the same height. Adapter updates are patched into
+// the runs: changed and inserted items become unmeasured runs that measure() fills in once the
+// adapter has finished dispatching, so a single change costs work in the runs, not in the items
+final class ViewTypeHeightIndex implements HeightIndex {
+    private static final int UNMEASURED = -1;
+
+    private int[] runStarts;
+    private int[] runOffsets;
+    private int[] runHeights;
+    private int runCount;
+    private int unmeasuredRunCount;
+    private int size;
+
+    ViewTypeHeightIndex() {
+        this.runStarts = new int[8];
+        this.runOffsets = new int[8];
+        this.runHeights = new int[8];
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    void clear() {
+        this.runCount = 0;
+        this.unmeasuredRunCount = 0;
+        this.size = 0;
+    }
+
+    void append(int height) {
+        if (this.runCount > 0 && this.runHeights[this.runCount - 1] == height) {
+            ++this.size;
+            return;
+        }
+        ensureCapacity(this.runCount + 1);
+        this.runStarts[this.runCount] = this.size;
+        this.runOffsets[this.runCount] = getTotalHeight();
+        this.runHeights[this.runCount] = height;
+        ++this.runCount;
+        ++this.size;
+    }
+
+    void markDirty(int start, int count) {
+        if (count > 0) {
+            replace(start, count, count);
+        }
+    }
+
+    void insert(int start, int count) {
+        if (count > 0) {
+            replace(start, 0, count);
+        }
+    }
+
+    void remove(int start, int count) {
+        if (count > 0) {
+            replace(start, count, 0);
+        }
+    }
+
+    void move(int from, int to, int count) {
+        if (from == to || count <= 0) {
+            return;
+        }
+        // The moved block keeps its runs, lift them out and drop them in at the target
+        int first = splitAt(from);
+        int last = splitAt(from + count);
+        int[] movedLengths = new int[last - first];
+        int[] movedHeights = Arrays.copyOfRange(this.runHeights, first, last);
+        for (int run = first; run < last; ++run) {
+            movedLengths[run - first] = getRunLength(run);
+        }
+        replaceRuns(first, last, movedLengths, movedHeights, 0);
+        int target = splitAt(to);
+        replaceRuns(target, target, movedLengths, movedHeights, movedLengths.length);
+    }
+
+    boolean hasUnmeasured() {
+        return this.unmeasuredRunCount > 0;
+    }
+
+    // Replaces every unmeasured run with the runs of its measured heights
+    void measure(PrefixSumHeightIndex.Heights heights) {
+        if (this.unmeasuredRunCount == 0) {
+            return;
+        }
+        // Measuring never shifts positions, so the unmeasured ranges can be collected up front
+        int[] starts = new int[this.unmeasuredRunCount];
+        int[] lengths = new int[this.unmeasuredRunCount];
+        int rangeCount = 0;
+        for (int run = 0; run < this.runCount; ++run) {
+            if (this.runHeights[run] == UNMEASURED) {
+                starts[rangeCount] = this.runStarts[run];
+                lengths[rangeCount] = getRunLength(run);
+                ++rangeCount;
+            }
+        }
+        for (int i = 0; i < rangeCount; ++i) {
+            int[] measuredLengths = new int[4];
+            int[] measuredHeights = new int[4];
+            int count = 0;
+            for (int position = starts[i]; position < starts[i] + lengths[i]; ++position) {
+                int height = heights.getHeight(position);
+                if (count > 0 && measuredHeights[count - 1] == height) {
+                    ++measuredLengths[count - 1];
+                    continue;
+                }
+                if (count == measuredHeights.length) {
+                    measuredLengths = Arrays.copyOf(measuredLengths, count * 2);
+                    measuredHeights = Arrays.copyOf(measuredHeights, count * 2);
+                }
+                measuredLengths[count] = 1;
+                measuredHeights[count] = height;
+                ++count;
+            }
+            replaceRuns(splitAt(starts[i]), splitAt(starts[i] + lengths[i]), measuredLengths, measuredHeights, count);
+        }
+    }
+
+    @Override
+    public int getOffset(int index) {
+        if (index <= 0 || this.runCount == 0) {
+            return 0;
+        }
+        if (index >= this.size) {
+            return getTotalHeight();
+        }
+        int run = findRunByPosition(index);
+        return this.runOffsets[run] + (index - this.runStarts[run]) * this.runHeights[run];
+    }
+
+    @Override
+    public int getTotalHeight() {
+        if (this.runCount == 0) {
+            return 0;
+        }
+        int last = this.runCount - 1;
+        return this.runOffsets[last] + (this.size - this.runStarts[last]) * this.runHeights[last];
+    }
+
+    @Override
+    public int findIndex(int offset) {
+        int totalHeight = getTotalHeight();
+        if (offset < 0 || this.size == 0) {
+            return -1;
+        }
+        if (offset >= totalHeight) {
+            return offset == totalHeight ? this.size - 1 : -1;
+        }
+        // The last run starting at or before the offset always has a height here
+        int low = 0;
+        int high = this.runCount - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (this.runOffsets[mid] <= offset) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return this.runStarts[low] + (offset - this.runOffsets[low]) / this.runHeights[low];
+    }
+
+    // Replaces removeCount items at start with insertCount unmeasured ones
+    private void replace(int start, int removeCount, int insertCount) {
+        int first = splitAt(start);
+        int last = splitAt(start + removeCount);
+        if (insertCount == 0) {
+            replaceRuns(first, last, null, null, 0);
+        } else {
+            replaceRuns(first, last, new int[] { insertCount }, new int[] { UNMEASURED }, 1);
+        }
+    }
+
+    // Makes the given position the start of a run, returns that run or runCount at the end
+    private int splitAt(int position) {
+        if (position >= this.size) {
+            return this.runCount;
+        }
+        int run = findRunByPosition(position);
+        if (this.runStarts[run] == position) {
+            return run;
+        }
+        ensureCapacity(this.runCount + 1);
+        shiftRuns(run + 1, 1);
+        this.runStarts[run + 1] = position;
+        this.runHeights[run + 1] = this.runHeights[run];
+        this.runOffsets[run + 1] = this.runOffsets[run]
+                + (position - this.runStarts[run]) * Math.max(0, this.runHeights[run]);
+        if (this.runHeights[run] == UNMEASURED) {
+            ++this.unmeasuredRunCount;
+        }
+        return run + 1;
+    }
+
+    // Swaps the runs [first, last) for count new runs, then merges equal neighbours after them
+    private void replaceRuns(int first, int last, int[] lengths, int[] heights, int count) {
+        int start = first < this.runCount ? this.runStarts[first] : this.size;
+        int removedLength = (last < this.runCount ? this.runStarts[last] : this.size) - start;
+        for (int run = first; run < last; ++run) {
+            if (this.runHeights[run] == UNMEASURED) {
+                --this.unmeasuredRunCount;
+            }
+        }
+        ensureCapacity(this.runCount + count - (last - first));
+        shiftRuns(last, count - (last - first));
+        int position = start;
+        for (int i = 0; i < count; ++i) {
+            this.runStarts[first + i] = position;
+            this.runHeights[first + i] = heights[i];
+            if (heights[i] == UNMEASURED) {
+                ++this.unmeasuredRunCount;
+            }
+            position += lengths[i];
+        }
+        int sizeDelta = position - start - removedLength;
+        for (int run = first + count; run < this.runCount; ++run) {
+            this.runStarts[run] += sizeDelta;
+        }
+        this.size += sizeDelta;
+        compact(Math.max(0, first - 1));
+    }
+
+    // Merges neighbouring runs of equal height from the given run on and recomputes their offsets
+    private void compact(int from) {
+        if (this.runCount <= from) {
+            return;
+        }
+        int write = from;
+        for (int read = from + 1; read < this.runCount; ++read) {
+            if (this.runHeights[read] == this.runHeights[write]) {
+                if (this.runHeights[read] == UNMEASURED) {
+                    --this.unmeasuredRunCount;
+                }
+                continue;
+            }
+            ++write;
+            this.runStarts[write] = this.runStarts[read];
+            this.runHeights[write] = this.runHeights[read];
+        }
+        this.runCount = write + 1;
+        if (from == 0) {
+            this.runOffsets[0] = 0;
+        }
+        for (int run = Math.max(1, from + 1); run < this.runCount; ++run) {
+            this.runOffsets[run] = this.runOffsets[run - 1]
+                    + (this.runStarts[run] - this.runStarts[run - 1]) * Math.max(0, this.runHeights[run - 1]);
+        }
+    }
+
+    private void shiftRuns(int from, int delta) {
+        if (delta == 0) {
+            return;
+        }
+        System.arraycopy(this.runStarts, from, this.runStarts, from + delta, this.runCount - from);
+        System.arraycopy(this.runOffsets, from, this.runOffsets, from + delta, this.runCount - from);
+        System.arraycopy(this.runHeights, from, this.runHeights, from + delta, this.runCount - from);
+        this.runCount += delta;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > this.runStarts.length) {
+            int newCapacity = Math.max(capacity, this.runStarts.length * 2);
+            this.runStarts = Arrays.copyOf(this.runStarts, newCapacity);
+            this.runOffsets = Arrays.copyOf(this.runOffsets, newCapacity);
+            this.runHeights = Arrays.copyOf(this.runHeights, newCapacity);
+        }
+    }
+
+    private int getRunLength(int run) {
+        return (run + 1 < this.runCount ? this.runStarts[run + 1] : this.size) - this.runStarts[run];
+    }
+
+    private int findRunByPosition(int position) {
+        int low = 0;
+        int high = this.runCount - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (this.runStarts[mid] <= position) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Al Shakib (shakib@alshakib.dev)
+ *
+ * This file is part of Recycler View Compat
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+
+package dev.alshakib.rvcompat.adapter;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListUpdateCallback;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+// The dispatched updates are replayed on a model of the old list, which must end up as the new one
+public class KeyedDiffTest {
+    private static final ListAdapterCompat.KeyExtractor<Item> KEY_EXTRACTOR = new ListAdapterCompat.KeyExtractor<Item>() {
+        @Override
+        public long getKey(@NonNull Item item) {
+            return item.key;
+        }
+    };
+
+    private static final DiffUtil.ItemCallback<Item> ITEM_CALLBACK = new DiffUtil.ItemCallback<Item>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Item oldItem, @NonNull Item newItem) {
+            return oldItem.key == newItem.key;
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Item oldItem, @NonNull Item newItem) {
+            return oldItem.content == newItem.content;
+        }
+
+        @Override
+        public Object getChangePayload(@NonNull Item oldItem, @NonNull Item newItem) {
+            return newItem;
+        }
+    };
+
+    @Test
+    public void randomListsReplayToNewOrder() {
+        Random random = new Random(17);
+        List<Long> keys = new ArrayList<>();
+        for (long key = 0; key < 60; ++key) {
+            keys.add(key);
+        }
+        for (int round = 0; round < 2000; ++round) {
+            Collections.shuffle(keys, random);
+            List<Item> oldList = items(keys.subList(0, random.nextInt(30)), random);
+            // Part of the new list keeps old keys, the rest are fresh
+            Collections.shuffle(keys, random);
+            List<Item> newList = items(keys.subList(0, random.nextInt(30)), random);
+            assertReplaysToNewList(oldList, newList);
+        }
+    }
+
+    @Test
+    public void emptyListsReplayToNewList() {
+        List<Item> empty = Collections.emptyList();
+        List<Item> list = Arrays.asList(new Item(1, 0), new Item(2, 0), new Item(3, 0));
+        assertEquals(0, assertReplaysToNewList(empty, empty).size());
+        assertReplaysToNewList(empty, list);
+        assertReplaysToNewList(list, empty);
+    }
+
+    @Test
+    public void itemMovedToEndIsOneMove() {
+        List<Item> oldList = Arrays.asList(new Item(1, 0), new Item(2, 0), new Item(3, 0), new Item(4, 0));
+        List<Item> newList = Arrays.asList(new Item(2, 0), new Item(3, 0), new Item(4, 0), new Item(1, 0));
+        assertEquals(Collections.singletonList("move 0 3"), assertReplaysToNewList(oldList, newList));
+    }
+
+    @Test
+    public void repeatedKeysFallBack() {
+        List<Item> unique = Arrays.asList(new Item(1, 0), new Item(2, 0));
+        List<Item> repeated = Arrays.asList(new Item(1, 0), new Item(2, 0), new Item(1, 1));
+        assertNull(KeyedDiff.calculateDiff(unique, repeated, KEY_EXTRACTOR, ITEM_CALLBACK));
+        assertNull(KeyedDiff.calculateDiff(repeated, unique, KEY_EXTRACTOR, ITEM_CALLBACK));
+        assertNull(KeyedDiff.calculateDiff(Arrays.asList(new Item(1, 0), null), unique, KEY_EXTRACTOR, ITEM_CALLBACK));
+    }
+
+    // Returns the dispatched updates
+    private static List<String> assertReplaysToNewList(List<Item> oldList, List<Item> newList) {
+        KeyedDiff diff = KeyedDiff.calculateDiff(oldList, newList, KEY_EXTRACTOR, ITEM_CALLBACK);
+        assertNotNull(diff);
+        final List<Slot> model = new ArrayList<>();
+        for (Item item : oldList) {
+            model.add(new Slot(item));
+        }
+        final List<String> updates = new ArrayList<>();
+        diff.dispatchUpdatesTo(new ListUpdateCallback() {
+            @Override
+            public void onInserted(int position, int count) {
+                updates.add("insert " + position + " " + count);
+                for (int i = 0; i < count; ++i) {
+                    model.add(position, new Slot(null));
+                }
+            }
+
+            @Override
+            public void onRemoved(int position, int count) {
+                updates.add("remove " + position + " " + count);
+                model.subList(position, position + count).clear();
+            }
+
+            @Override
+            public void onMoved(int fromPosition, int toPosition) {
+                updates.add("move " + fromPosition + " " + toPosition);
+                model.add(toPosition, model.remove(fromPosition));
+            }
+
+            @Override
+            public void onChanged(int position, int count, Object payload) {
+                updates.add("change " + position + " " + count);
+                for (int i = 0; i < count; ++i) {
+                    model.get(position + i).payload = payload;
+                }
+            }
+        });
+
+        Set<Long> oldKeys = new HashSet<>();
+        for (Item item : oldList) {
+            oldKeys.add(item.key);
+        }
+        assertEquals(newList.size(), model.size());
+        for (int i = 0; i < newList.size(); ++i) {
+            Item newItem = newList.get(i);
+            Slot slot = model.get(i);
+            if (slot.oldItem == null) {
+                assertFalse(oldKeys.contains(newItem.key));
+                continue;
+            }
+            assertEquals(newItem.key, slot.oldItem.key);
+            if (slot.oldItem.content == newItem.content) {
+                assertNull(slot.payload);
+            } else {
+                assertSame(newItem, slot.payload);
+            }
+        }
+        return updates;
+    }
+
+    private static List<Item> items(List<Long> keys, Random random) {
+        List<Item> items = new ArrayList<>(keys.size());
+        for (long key : keys) {
+            items.add(new Item(key, random.nextInt(3)));
+        }
+        return items;
+    }
+
+    private static final class Item {
+        final long key;
+        final int content;
+
+        Item(long key, int content) {
+            this.key = key;
+            this.content = content;
+        }
+    }
+
+    // An old item in its current place, or an inserted one when oldItem is null
+    private static final class Slot {
+        final Item oldItem;
+        Object payload;
+
+        Slot(Item oldItem) {
+            this.oldItem = oldItem;
+        }
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Al Shakib (shakib@alshakib.dev)
+ *
+ * This file is part of Recycler View Compat
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+
+package dev.alshakib.rvcompat.adapter;
+
+import android.os.Looper;
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncDifferConfig;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
+import androidx.recyclerview.widget.RecyclerView;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import dev.alshakib.rvcompat.viewholder.ViewHolderCompat;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.robolectric.Shadows.shadowOf;
+
+// Diffs run on a queued executor, so a test decides when a submitted diff finishes
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class ListAdapterCompatTest {
+    private QueuedExecutor diffExecutor;
+    private StringAdapter adapter;
+    private List<String> events;
+    private int observedItemCount;
+
+    @Before
+    public void setUp() {
+        this.diffExecutor = new QueuedExecutor();
+        this.events = new ArrayList<>();
+        this.adapter = new StringAdapter(this.diffExecutor, this.events);
+        this.adapter.registerAdapterDataObserver(new RecyclerView.AdapterDataObserver() {
+            @Override
+            public void onItemRangeInserted(int positionStart, int itemCount) {
+                observedItemCount += itemCount;
+            }
+
+            @Override
+            public void onItemRangeRemoved(int positionStart, int itemCount) {
+                observedItemCount -= itemCount;
+            }
+        });
+        this.adapter.submitList(Arrays.asList("a", "b"), commitCallback("initial"));
+        this.events.clear();
+    }
+
+    @Test
+    public void patchWithoutPendingDiffAppliesAtOnce() {
+        this.adapter.submitAppend(Arrays.asList("c", "d"));
+        this.adapter.submitRemoveRange(0, 1);
+        this.adapter.submitInsert(1, Collections.singletonList("x"));
+        this.adapter.submitReplace(0, Collections.singletonList("B"));
+        assertEquals(Arrays.asList("B", "x", "c", "d"), this.adapter.getCurrentList());
+        assertEquals(4, this.observedItemCount);
+        assertEquals(4, this.events.size());
+        assertEquals(0, this.diffExecutor.size());
+    }
+
+    @Test
+    public void patchDuringDiffAppliesOnTopOfPendingList() {
+        this.adapter.submitList(Arrays.asList("b", "c"), commitCallback("diff"));
+        this.adapter.submitAppend(Collections.singletonList("d"));
+        this.adapter.submitRemoveRange(0, 1);
+        // Nothing is applied until the diff of the patched list lands
+        assertEquals(Arrays.asList("a", "b"), this.adapter.getCurrentList());
+        assertEquals(Collections.<String>emptyList(), this.events);
+
+        finishDiffs();
+        assertEquals(Arrays.asList("c", "d"), this.adapter.getCurrentList());
+        assertEquals(2, this.observedItemCount);
+        // The commit callback of the pending diff moves to the patched list and runs once
+        assertEquals(Arrays.asList("changed [c, d]", "commit diff"), this.events);
+    }
+
+    @Test
+    public void supersededDiffNeverCommits() {
+        this.adapter.submitList(Arrays.asList("b"), commitCallback("first"));
+        this.adapter.submitList(Arrays.asList("c", "b", "a"), commitCallback("second"));
+        finishDiffs();
+        assertEquals(Arrays.asList("changed [c, b, a]", "commit second"), this.events);
+        assertEquals(3, this.observedItemCount);
+    }
+
+    @Test
+    public void commitCallbacksFollowListChanges() {
+        this.adapter.submitList(null, commitCallback("cleared"));
+        this.adapter.submitList(Arrays.asList("x"), commitCallback("filled"));
+        this.adapter.submitList(Arrays.asList("x", "y"), commitCallback("diffed"));
+        finishDiffs();
+        assertEquals(Arrays.asList(
+                "changed []", "commit cleared",
+                "changed [x]", "commit filled",
+                "changed [x, y]", "commit diffed"), this.events);
+    }
+
+    @Test
+    public void sameListCommitsWithoutChange() {
+        List<String> list = Arrays.asList("c");
+        this.adapter.submitList(list);
+        finishDiffs();
+        this.events.clear();
+        this.adapter.submitList(list, commitCallback("same"));
+        assertEquals(Collections.singletonList("commit same"), this.events);
+    }
+
+    // A method ListAdapter adds later would otherwise read or feed its own differ, which stays empty
+    @Test
+    public void everyListAdapterMethodIsOverridden() {
+        for (Method method : ListAdapter.class.getDeclaredMethods()) {
+            int modifiers = method.getModifiers();
+            if (Modifier.isPrivate(modifiers) || Modifier.isStatic(modifiers) || method.isSynthetic()
+                    || method.getName().equals("onCurrentListChanged")) {
+                continue;
+            }
+            try {
+                Method override = ListAdapterCompat.class.getDeclaredMethod(method.getName(), method.getParameterTypes());
+                assertSame(ListAdapterCompat.class, override.getDeclaringClass());
+            } catch (NoSuchMethodException e) {
+                fail("ListAdapterCompat does not override " + method);
+            }
+        }
+    }
+
+    private void finishDiffs() {
+        while (this.diffExecutor.size() > 0) {
+            this.diffExecutor.runNext();
+            shadowOf(Looper.getMainLooper()).idle();
+        }
+    }
+
+    @NonNull
+    private Runnable commitCallback(@NonNull final String name) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                events.add("commit " + name);
+            }
+        };
+    }
+
+    private static final class QueuedExecutor implements Executor {
+        private final List<Runnable> runnables = new ArrayList<>();
+
+        @Override
+        public void execute(@NonNull Runnable runnable) {
+            this.runnables.add(runnable);
+        }
+
+        int size() {
+            return this.runnables.size();
+        }
+
+        void runNext() {
+            this.runnables.remove(0).run();
+        }
+    }
+
+    private static final class StringViewHolder extends ViewHolderCompat {
+        StringViewHolder(@NonNull View view) {
+            super(view);
+        }
+    }
+
+    private static final class StringAdapter extends ListAdapterCompat<String, StringViewHolder> {
+        private final List<String> events;
+
+        StringAdapter(@NonNull Executor diffExecutor, @NonNull List<String> events) {
+            super(new AsyncDifferConfig.Builder<>(new DiffUtil.ItemCallback<String>() {
+                @Override
+                public boolean areItemsTheSame(@NonNull String oldItem, @NonNull String newItem) {
+                    return oldItem.equals(newItem);
+                }
+
+                @Override
+                public boolean areContentsTheSame(@NonNull String oldItem, @NonNull String newItem) {
+                    return oldItem.equals(newItem);
+                }
+            }).setBackgroundThreadExecutor(diffExecutor).build());
+            this.events = events;
+        }
+
+        @Override
+        public void onCurrentListChanged(@NonNull List<String> previousList, @NonNull List<String> currentList) {
+            this.events.add("changed " + currentList);
+        }
+
+        @NonNull
+        @Override
+        public StringViewHolder onCreateViewHolderCompat(@NonNull ViewGroup parent, int viewType) {
+            return new StringViewHolder(new View(parent.getContext()));
+        }
+
+        @Override
+        public void onBindViewHolderCompat(@NonNull StringViewHolder holder, int position) { }
+    }
+}
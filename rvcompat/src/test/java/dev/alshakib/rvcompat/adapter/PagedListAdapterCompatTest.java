@@ -0,0 +1,220 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Al Shakib (shakib@alshakib.dev)
+ *
+ * This file is part of Recycler View Compat
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.alshakib.rvcompat.adapter;
+
+import android.app.Activity;
+import android.content.Context;
+import android.os.Looper;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.paging.PagedList;
+import androidx.paging.PositionalDataSource;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import dev.alshakib.rvcompat.viewholder.ViewHolderCompat;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+@SuppressWarnings("deprecation")
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class PagedListAdapterCompatTest {
+    private static final int ITEM_COUNT = 10_000;
+    private static final int PAGE_SIZE = 20;
+    private static final int ROW_HEIGHT = 100;
+    private static final int LANDING_POSITION = 5000;
+
+    private static final Executor DIRECT_EXECUTOR = new Executor() {
+        @Override
+        public void execute(@NonNull Runnable command) {
+            command.run();
+        }
+    };
+
+    private RecyclerView recyclerView;
+    private RecordingLayoutManager layoutManager;
+    private StringAdapter adapter;
+
+    @Before
+    public void setUp() {
+        Activity activity = Robolectric.buildActivity(Activity.class).setup().get();
+        this.recyclerView = new RecyclerView(activity);
+        this.layoutManager = new RecordingLayoutManager(activity);
+        this.recyclerView.setLayoutManager(this.layoutManager);
+        this.recyclerView.setItemAnimator(null);
+        this.adapter = new StringAdapter();
+        this.recyclerView.setAdapter(this.adapter);
+        activity.setContentView(this.recyclerView, new FrameLayout.LayoutParams(480, 800));
+        PagedList.Config config = new PagedList.Config.Builder()
+                .setPageSize(PAGE_SIZE)
+                .setInitialLoadSizeHint(PAGE_SIZE * 3)
+                .setEnablePlaceholders(true)
+                .build();
+        this.adapter.submitList(new PagedList.Builder<>(new StringDataSource(), config)
+                .setFetchExecutor(DIRECT_EXECUTOR)
+                .setNotifyExecutor(DIRECT_EXECUTOR)
+                .build());
+        frame();
+    }
+
+    @Test
+    public void onlyPlaceholderReadsCountAsAvoidedLoads() {
+        this.adapter.onFastScrollStart();
+        assertNotNull(this.adapter.getItem(0));
+        assertEquals(0, this.adapter.getAvoidedLoadCount());
+        assertNull(this.adapter.getItem(LANDING_POSITION));
+        assertNull(this.adapter.getItem(LANDING_POSITION + 1));
+        assertEquals(2, this.adapter.getAvoidedLoadCount());
+        this.adapter.resetAvoidedLoadCount();
+        this.adapter.onFastScrollStop();
+        assertNotNull(this.adapter.getItem(1));
+        assertEquals(0, this.adapter.getAvoidedLoadCount());
+    }
+
+    @Test
+    public void stopLoadsAroundRangeOfLandingLayout() {
+        this.adapter.onFastScrollStart();
+        this.layoutManager.scrollToPositionWithOffset(LANDING_POSITION, 0);
+        this.layoutManager.visibleRangeReads.clear();
+        // ACTION_UP arrives before the layout of the final thumb position has run
+        this.adapter.onFastScrollStop();
+        assertTrue(this.layoutManager.visibleRangeReads.isEmpty());
+        frame();
+        assertEquals(1, this.layoutManager.visibleRangeReads.size());
+        assertEquals(LANDING_POSITION, (int) this.layoutManager.visibleRangeReads.get(0));
+    }
+
+    @Test
+    public void restartingFastScrollCancelsPendingLoad() {
+        this.adapter.onFastScrollStart();
+        this.layoutManager.scrollToPositionWithOffset(LANDING_POSITION, 0);
+        this.layoutManager.visibleRangeReads.clear();
+        this.adapter.onFastScrollStop();
+        this.adapter.onFastScrollStart();
+        frame();
+        assertTrue(this.layoutManager.visibleRangeReads.isEmpty());
+    }
+
+    private static void frame() {
+        shadowOf(Looper.getMainLooper()).idleFor(16, TimeUnit.MILLISECONDS);
+    }
+
+    private static final class RecordingLayoutManager extends LinearLayoutManager {
+        final List<Integer> visibleRangeReads = new ArrayList<>();
+
+        RecordingLayoutManager(Context context) {
+            super(context);
+        }
+
+        @Override
+        public int findFirstVisibleItemPosition() {
+            int position = super.findFirstVisibleItemPosition();
+            this.visibleRangeReads.add(position);
+            return position;
+        }
+    }
+
+    private static final class StringDataSource extends PositionalDataSource<String> {
+        @Override
+        public void loadInitial(@NonNull LoadInitialParams params, @NonNull LoadInitialCallback<String> callback) {
+            int start = computeInitialLoadPosition(params, ITEM_COUNT);
+            int size = computeInitialLoadSize(params, start, ITEM_COUNT);
+            callback.onResult(rows(start, size), start, ITEM_COUNT);
+        }
+
+        @Override
+        public void loadRange(@NonNull LoadRangeParams params, @NonNull LoadRangeCallback<String> callback) {
+            callback.onResult(rows(params.startPosition, params.loadSize));
+        }
+
+        private static List<String> rows(int start, int size) {
+            List<String> rows = new ArrayList<>(size);
+            for (int i = start; i < start + size; ++i) {
+                rows.add("Row " + i);
+            }
+            return rows;
+        }
+    }
+
+    private static final class StringViewHolder extends ViewHolderCompat {
+        StringViewHolder(@NonNull View view) {
+            super(view);
+        }
+    }
+
+    private static final class StringAdapter extends PagedListAdapterCompat<String, StringViewHolder> {
+        StringAdapter() {
+            super(new DiffUtil.ItemCallback<String>() {
+                @Override
+                public boolean areItemsTheSame(@NonNull String oldItem, @NonNull String newItem) {
+                    return oldItem.equals(newItem);
+                }
+
+                @Override
+                public boolean areContentsTheSame(@NonNull String oldItem, @NonNull String newItem) {
+                    return oldItem.equals(newItem);
+                }
+            });
+        }
+
+        @NonNull
+        @Override
+        public StringViewHolder onCreateViewHolderCompat(@NonNull ViewGroup parent, int viewType) {
+            TextView textView = new TextView(parent.getContext());
+            textView.setLayoutParams(new RecyclerView.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ROW_HEIGHT));
+            return new StringViewHolder(textView);
+        }
+
+        @Override
+        public void onBindViewHolderCompat(@NonNull StringViewHolder holder, int position) {
+            ((TextView) holder.getView()).setText(getItem(position));
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Al Shakib (shakib@alshakib.dev)
+ *
+ * This file is part of Recycler View Compat
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+
+package dev.alshakib.rvcompat.adapter;
+
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class SubmitCoalescerTest {
+    private RecordingSubmitter submitter;
+    private SubmitCoalescer<String> submitCoalescer;
+    private List<Integer> droppedSubmissions;
+
+    @Before
+    public void setUp() {
+        this.submitter = new RecordingSubmitter();
+        this.submitCoalescer = new SubmitCoalescer<>(this.submitter);
+        this.droppedSubmissions = new ArrayList<>();
+        this.submitCoalescer.setOnCoalescedCommitListener(new SubmitCoalescer.OnCoalescedCommitListener() {
+            @Override
+            public void onCoalescedCommit(int droppedSubmissions) {
+                SubmitCoalescerTest.this.droppedSubmissions.add(droppedSubmissions);
+            }
+        });
+    }
+
+    @Test
+    public void latestSubmitOfFrameWins() {
+        this.submitCoalescer.submit("a");
+        this.submitCoalescer.submit("b");
+        this.submitCoalescer.submit("c");
+        assertTrue(this.submitter.lists.isEmpty());
+        frame();
+        assertEquals(Collections.singletonList("c"), this.submitter.lists);
+        this.submitter.commit();
+        assertEquals(Collections.singletonList(2), this.droppedSubmissions);
+    }
+
+    @Test
+    public void latestSubmitWinsAcrossFramesOfRunningDiff() {
+        this.submitCoalescer.submit("a");
+        frame();
+        this.submitCoalescer.submit("b");
+        frame();
+        this.submitCoalescer.submit("c");
+        frame();
+        assertEquals(Collections.singletonList("a"), this.submitter.lists);
+
+        this.submitter.commit();
+        assertEquals(Collections.singletonList(0), this.droppedSubmissions);
+        frame();
+        assertEquals(Arrays.asList("a", "c"), this.submitter.lists);
+        this.submitter.commit();
+        assertEquals(Arrays.asList(0, 1), this.droppedSubmissions);
+        frame();
+        assertEquals(2, this.submitter.lists.size());
+    }
+
+    @Test
+    public void nullListIsSubmittedToo() {
+        this.submitCoalescer.submit("a");
+        this.submitCoalescer.submit(null);
+        frame();
+        assertEquals(Collections.singletonList((String) null), this.submitter.lists);
+    }
+
+    @Test
+    public void cancelDropsPendingListAndRunningCommit() {
+        this.submitCoalescer.submit("a");
+        frame();
+        this.submitCoalescer.submit("b");
+        this.submitCoalescer.cancel();
+        this.submitter.commit();
+        frame();
+        assertEquals(Collections.singletonList("a"), this.submitter.lists);
+        assertTrue(this.droppedSubmissions.isEmpty());
+
+        // The cancelled diff no longer holds back the next submit
+        this.submitCoalescer.submit("d");
+        frame();
+        assertEquals(Arrays.asList("a", "d"), this.submitter.lists);
+        this.submitter.commit();
+        assertEquals(Collections.singletonList(0), this.droppedSubmissions);
+    }
+
+    @Test
+    public void cancelRemovesPostedFrame() {
+        this.submitCoalescer.submit("a");
+        this.submitCoalescer.cancel();
+        frame();
+        assertTrue(this.submitter.lists.isEmpty());
+    }
+
+    private static void frame() {
+        shadowOf(Looper.getMainLooper()).idleFor(16, TimeUnit.MILLISECONDS);
+    }
+
+    private static final class RecordingSubmitter implements SubmitCoalescer.Submitter<String> {
+        final List<String> lists = new ArrayList<>();
+        final List<Runnable> commitCallbacks = new ArrayList<>();
+
+        @Override
+        public void submit(@Nullable String list, @NonNull Runnable commitCallback) {
+            this.lists.add(list);
+            this.commitCallbacks.add(commitCallback);
+        }
+
+        // Runs the commit callback of the oldest diff still running
+        void commit() {
+            this.commitCallbacks.remove(0).run();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Al Shakib (shakib@alshakib.dev)
+ *
+ * This file is part of Recycler View Compat
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+
+package dev.alshakib.rvcompat.adapter;
+
+import android.app.Activity;
+import android.os.Looper;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.concurrent.TimeUnit;
+
+import dev.alshakib.rvcompat.pool.SharedRecycledViewPool;
+import dev.alshakib.rvcompat.viewholder.ViewHolderCompat;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class ViewHolderPreInflaterTest {
+    private static final int VIEW_TYPE = 0;
+    private static final int SENTINEL_VIEW_TYPE = 1;
+    private static final int DEFAULT_MAX_RECYCLED_VIEWS = 5;
+
+    private Activity activity;
+    private RecyclerView recyclerView;
+    private EmptyAdapter adapter;
+
+    @Before
+    public void setUp() {
+        this.activity = Robolectric.buildActivity(Activity.class).setup().get();
+        this.recyclerView = new RecyclerView(this.activity);
+        this.adapter = new EmptyAdapter();
+        this.recyclerView.setAdapter(this.adapter);
+        this.activity.setContentView(this.recyclerView, new FrameLayout.LayoutParams(480, 800));
+    }
+
+    @Test
+    public void raisedMaximumIsRestoredWhenListGoesAway() {
+        RecyclerView.RecycledViewPool recycledViewPool = this.recyclerView.getRecycledViewPool();
+        this.adapter.preInflateViewHolders(this.recyclerView, VIEW_TYPE, 8);
+        awaitPreInflation();
+        assertEquals(8, recycledViewPool.getRecycledViewCount(VIEW_TYPE));
+
+        ((ViewGroup) this.recyclerView.getParent()).removeView(this.recyclerView);
+        assertEquals(DEFAULT_MAX_RECYCLED_VIEWS, recycledViewPool.getRecycledViewCount(VIEW_TYPE));
+        recycledViewPool.putRecycledView(this.adapter.createViewHolder(this.recyclerView, VIEW_TYPE));
+        assertEquals(DEFAULT_MAX_RECYCLED_VIEWS, recycledViewPool.getRecycledViewCount(VIEW_TYPE));
+    }
+
+    @Test
+    public void maximumLeftAloneWhilePoolKeepsHolders() {
+        RecyclerView.RecycledViewPool recycledViewPool = this.recyclerView.getRecycledViewPool();
+        this.adapter.preInflateViewHolders(this.recyclerView, VIEW_TYPE, 3);
+        awaitPreInflation();
+        assertEquals(3, recycledViewPool.getRecycledViewCount(VIEW_TYPE));
+
+        ((ViewGroup) this.recyclerView.getParent()).removeView(this.recyclerView);
+        assertEquals(3, recycledViewPool.getRecycledViewCount(VIEW_TYPE));
+    }
+
+    @Test
+    public void stopsOnceSharedPoolBudgetIsSpent() {
+        SharedRecycledViewPool recycledViewPool = new SharedRecycledViewPool(3);
+        recycledViewPool.setMaxRecycledViews(VIEW_TYPE, 10);
+        this.recyclerView.setRecycledViewPool(recycledViewPool);
+        this.adapter.preInflateViewHolders(this.recyclerView, VIEW_TYPE, 6);
+        awaitPreInflation();
+        assertEquals(3, recycledViewPool.getRecycledViewCount(VIEW_TYPE));
+
+        // The budget refused the holders, the larger maximum of the view type must survive that
+        recycledViewPool.setMaxTotalRecycledViews(64);
+        for (int i = 0; i < 7; ++i) {
+            recycledViewPool.putRecycledView(this.adapter.createViewHolder(this.recyclerView, VIEW_TYPE));
+        }
+        assertEquals(10, recycledViewPool.getRecycledViewCount(VIEW_TYPE));
+    }
+
+    // The inflater thread and the main thread both run in order, so once a later single holder has
+    // landed in its own pool every earlier one has been handled
+    private void awaitPreInflation() {
+        RecyclerView sentinelRecyclerView = new RecyclerView(this.activity);
+        this.adapter.preInflateViewHolders(sentinelRecyclerView, SENTINEL_VIEW_TYPE, 1);
+        long deadlineNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (sentinelRecyclerView.getRecycledViewPool().getRecycledViewCount(SENTINEL_VIEW_TYPE) == 0) {
+            assertTrue(System.nanoTime() < deadlineNanos);
+            shadowOf(Looper.getMainLooper()).idle();
+            Thread.yield();
+        }
+    }
+
+    private static final class EmptyViewHolder extends ViewHolderCompat {
+        EmptyViewHolder(@NonNull View view) {
+            super(view);
+        }
+    }
+
+    private static final class EmptyAdapter extends RecyclerViewAdapterCompat<EmptyViewHolder> {
+        @NonNull
+        @Override
+        public EmptyViewHolder onCreateViewHolderCompat(@NonNull ViewGroup parent, int viewType) {
+            return new EmptyViewHolder(new View(parent.getContext()));
+        }
+
+        @Override
+        public void onBindViewHolderCompat(@NonNull EmptyViewHolder holder, int position) { }
+
+        @Override
+        public int getItemCount() {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Al Shakib (shakib@alshakib.dev)
+ *
+ * This file is part of Recycler View Compat
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+
+package dev.alshakib.rvcompat.diff;
+
+import androidx.annotation.NonNull;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+// A single diff thread is held busy, so the queue order is decided before anything else runs
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class DiffExecutorTest {
+    private static final long TIMEOUT_SECONDS = 5;
+
+    private DiffExecutor diffExecutor;
+    private CountDownLatch blockerRelease;
+    private List<String> ranDiffs;
+
+    @Before
+    public void setUp() throws InterruptedException {
+        this.diffExecutor = new DiffExecutor(1);
+        this.blockerRelease = new CountDownLatch(1);
+        this.ranDiffs = Collections.synchronizedList(new ArrayList<String>());
+        final CountDownLatch blockerStarted = new CountDownLatch(1);
+        this.diffExecutor.newClient().execute(new Runnable() {
+            @Override
+            public void run() {
+                blockerStarted.countDown();
+                awaitQuietly(blockerRelease);
+            }
+        });
+        assertTrue(blockerStarted.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    }
+
+    @After
+    public void tearDown() {
+        this.blockerRelease.countDown();
+    }
+
+    @Test
+    public void visibleDiffsRunFirst() throws InterruptedException {
+        DiffExecutor.Client hiddenClient = this.diffExecutor.newClient();
+        hiddenClient.setVisible(false);
+        DiffExecutor.Client visibleClient = this.diffExecutor.newClient();
+        hiddenClient.execute(diff("hidden"));
+        visibleClient.execute(diff("visible"));
+        runQueuedDiffs(2);
+        assertEquals(Arrays.asList("visible", "hidden"), this.ranDiffs);
+    }
+
+    @Test
+    public void hiddenClientRequeuesBehindVisibleOnes() throws InterruptedException {
+        DiffExecutor.Client firstClient = this.diffExecutor.newClient();
+        DiffExecutor.Client secondClient = this.diffExecutor.newClient();
+        firstClient.execute(diff("first"));
+        secondClient.execute(diff("second"));
+        firstClient.setVisible(false);
+        runQueuedDiffs(2);
+        assertEquals(Arrays.asList("second", "first"), this.ranDiffs);
+    }
+
+    @Test
+    public void queuedDiffIsCancelledByItsSuccessor() throws InterruptedException {
+        DiffExecutor.Client client = this.diffExecutor.newClient();
+        DiffExecutor.Client otherClient = this.diffExecutor.newClient();
+        client.execute(diff("stale"));
+        otherClient.execute(diff("other"));
+        client.execute(diff("latest"));
+        assertEquals(1, this.diffExecutor.getCancelledDiffCount());
+        assertEquals(2, this.diffExecutor.getQueueDepth());
+        runQueuedDiffs(2);
+        assertEquals(Arrays.asList("other", "latest"), this.ranDiffs);
+    }
+
+    @Test
+    public void runningDiffIsNotCancelled() throws InterruptedException {
+        DiffExecutor.Client client = this.diffExecutor.newClient();
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        client.execute(new Runnable() {
+            @Override
+            public void run() {
+                started.countDown();
+                awaitQuietly(release);
+                ranDiffs.add("running");
+            }
+        });
+        this.blockerRelease.countDown();
+        assertTrue(started.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        client.execute(diff("next"));
+        release.countDown();
+        awaitCompletedDiffs(3);
+        assertEquals(0, this.diffExecutor.getCancelledDiffCount());
+        assertEquals(Arrays.asList("running", "next"), this.ranDiffs);
+    }
+
+    @Test
+    public void completedDiffsAreTimed() throws InterruptedException {
+        DiffExecutor.Client client = this.diffExecutor.newClient();
+        client.execute(new Runnable() {
+            @Override
+            public void run() {
+                sleepQuietly(5);
+            }
+        });
+        runQueuedDiffs(1);
+        assertEquals(0, this.diffExecutor.getQueueDepth());
+        assertTrue(client.getLastDiffDurationNanos() >= TimeUnit.MILLISECONDS.toNanos(5));
+        assertTrue(this.diffExecutor.getAverageDiffDurationNanos() > 0);
+    }
+
+    // Releases the blocker and waits for it and the given number of queued diffs
+    private void runQueuedDiffs(int count) throws InterruptedException {
+        this.blockerRelease.countDown();
+        awaitCompletedDiffs(count + 1);
+    }
+
+    private void awaitCompletedDiffs(long count) throws InterruptedException {
+        long deadlineNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (this.diffExecutor.getCompletedDiffCount() < count) {
+            assertTrue(System.nanoTime() < deadlineNanos);
+            Thread.sleep(1);
+        }
+        assertEquals(count, this.diffExecutor.getCompletedDiffCount());
+    }
+
+    @NonNull
+    private Runnable diff(@NonNull final String name) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                ranDiffs.add(name);
+            }
+        };
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
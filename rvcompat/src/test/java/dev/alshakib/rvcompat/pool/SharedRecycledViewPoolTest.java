@@ -0,0 +1,170 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Al Shakib (shakib@alshakib.dev)
+ *
+ * This file is part of Recycler View Compat
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+
+package dev.alshakib.rvcompat.pool;
+
+import android.app.Activity;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.LinearLayout;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class SharedRecycledViewPoolTest {
+    private static final int ROW_VIEW_TYPE = 0;
+    private static final int HEADER_VIEW_TYPE = 1;
+
+    private LinearLayout container;
+    private RecyclerView firstRecyclerView;
+    private RecyclerView secondRecyclerView;
+    private HolderFactory holderFactory;
+
+    @Before
+    public void setUp() {
+        Activity activity = Robolectric.buildActivity(Activity.class).setup().get();
+        this.container = new LinearLayout(activity);
+        this.firstRecyclerView = new RecyclerView(activity);
+        this.secondRecyclerView = new RecyclerView(activity);
+        this.container.addView(this.firstRecyclerView);
+        this.container.addView(this.secondRecyclerView);
+        activity.setContentView(this.container);
+        this.holderFactory = new HolderFactory();
+    }
+
+    @Test
+    public void totalBudgetSpansViewTypes() {
+        SharedRecycledViewPool pool = new SharedRecycledViewPool(3);
+        put(pool, ROW_VIEW_TYPE, 2);
+        put(pool, HEADER_VIEW_TYPE, 2);
+        assertEquals(2, pool.getRecycledViewCount(ROW_VIEW_TYPE));
+        assertEquals(1, pool.getRecycledViewCount(HEADER_VIEW_TYPE));
+        assertEquals(3, pool.getTotalRecycledViewCount());
+        assertEquals(1, pool.getDroppedCount());
+
+        assertNotNull(pool.getRecycledView(ROW_VIEW_TYPE));
+        put(pool, HEADER_VIEW_TYPE, 1);
+        assertEquals(2, pool.getRecycledViewCount(HEADER_VIEW_TYPE));
+        assertEquals(1, pool.getDroppedCount());
+    }
+
+    @Test
+    public void countsHitsAndMisses() {
+        SharedRecycledViewPool pool = new SharedRecycledViewPool();
+        assertNull(pool.getRecycledView(ROW_VIEW_TYPE));
+        put(pool, ROW_VIEW_TYPE, 1);
+        assertNotNull(pool.getRecycledView(ROW_VIEW_TYPE));
+        assertNull(pool.getRecycledView(HEADER_VIEW_TYPE));
+        assertEquals(1, pool.getHitCount());
+        assertEquals(2, pool.getMissCount());
+
+        pool.resetCounters();
+        assertEquals(0, pool.getHitCount());
+        assertEquals(0, pool.getMissCount());
+        assertEquals(0, pool.getDroppedCount());
+    }
+
+    @Test
+    public void emptiesOnceLastListDetaches() {
+        SharedRecycledViewPool pool = new SharedRecycledViewPool();
+        pool.attachTo(this.firstRecyclerView);
+        pool.attachTo(this.secondRecyclerView);
+        pool.attachTo(this.secondRecyclerView);
+        assertSame(pool, this.firstRecyclerView.getRecycledViewPool());
+        assertEquals(2, pool.getAttachedRecyclerViewCount());
+        put(pool, ROW_VIEW_TYPE, 3);
+
+        this.container.removeView(this.firstRecyclerView);
+        assertEquals(3, pool.getTotalRecycledViewCount());
+        this.container.removeView(this.secondRecyclerView);
+        assertEquals(0, pool.getAttachedRecyclerViewCount());
+        assertEquals(0, pool.getTotalRecycledViewCount());
+
+        // A list coming back keeps sharing the pool
+        this.container.addView(this.firstRecyclerView);
+        assertEquals(1, pool.getAttachedRecyclerViewCount());
+    }
+
+    @Test
+    public void detachFromReleasesList() {
+        SharedRecycledViewPool pool = new SharedRecycledViewPool();
+        pool.attachTo(this.firstRecyclerView);
+        put(pool, ROW_VIEW_TYPE, 2);
+        pool.detachFrom(this.firstRecyclerView);
+        assertEquals(0, pool.getAttachedRecyclerViewCount());
+        assertEquals(0, pool.getTotalRecycledViewCount());
+        assertNotSame(this.firstRecyclerView.getRecycledViewPool(), pool);
+
+        this.container.removeView(this.firstRecyclerView);
+        this.container.addView(this.firstRecyclerView);
+        assertEquals(0, pool.getAttachedRecyclerViewCount());
+    }
+
+    @Test
+    public void instancesAreSharedPerKey() {
+        assertSame(SharedRecycledViewPool.getInstance(), SharedRecycledViewPool.getInstance(SharedRecycledViewPool.DEFAULT_KEY));
+        assertNotSame(SharedRecycledViewPool.getInstance("rows"), SharedRecycledViewPool.getInstance());
+    }
+
+    private void put(SharedRecycledViewPool pool, int viewType, int count) {
+        for (int i = 0; i < count; ++i) {
+            pool.putRecycledView(this.holderFactory.createViewHolder(this.container, viewType));
+        }
+    }
+
+    private static final class HolderFactory extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+        @NonNull
+        @Override
+        public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+            return new RecyclerView.ViewHolder(new View(parent.getContext())) { };
+        }
+
+        @Override
+        public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) { }
+
+        @Override
+        public int getItemCount() {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Al Shakib (shakib@alshakib.dev)
+ *
+ * This file is part of Recycler View Compat
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.alshakib.rvcompat.view;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+// Per frame budgets for the work a fast scroll does on the main thread. Allocation budgets are not
+// asserted for whole frames: layout and child drawing run through Robolectric shadows, which
+// allocate on their own, so only the fast scroller's own drawing is checked for allocations
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class FastScrollBudgetTest {
+    private static final int ITEMS_PER_SECTION = 400;
+
+    private List<FastScrollHarness.Item> items;
+    private FastScrollHarness harness;
+
+    @Before
+    public void setUp() {
+        this.items = FastScrollHarness.alphabet(ITEMS_PER_SECTION);
+        this.harness = new FastScrollHarness(this.items);
+    }
+
+    @Test
+    public void firstFrameMeasuresEveryRowOnce() {
+        FastScrollHarness harness = new FastScrollHarness(this.items);
+        assertEquals(this.items.size(), harness.recyclerView.getHeightRequestCount());
+        harness.frames(5);
+        assertEquals(this.items.size(), harness.recyclerView.getHeightRequestCount());
+    }
+
+    @Test
+    public void thumbDragStaysWithinFrameBudgets() {
+        int frames = 60;
+        this.harness.resetCounters();
+        this.harness.startThumbDrag();
+        this.harness.dragThumbTo(1f, frames, 4);
+        this.harness.endThumbDrag();
+        FastScrollRecyclerView recyclerView = this.harness.recyclerView;
+
+        // Heights are indexed once, scrubbing only walks the index
+        assertEquals(0, recyclerView.getHeightRequestCount());
+        // Touch samples are coalesced to one scroll per frame, the release flushes the last one
+        assertTrue("layout passes " + recyclerView.getLayoutPassCount(),
+                recyclerView.getLayoutPassCount() <= frames + 1);
+        assertTrue("section names " + recyclerView.getSectionNameRequestCount(),
+                recyclerView.getSectionNameRequestCount() <= frames + 1);
+        // Every jump rebinds at most one screen of rows
+        assertTrue("binds " + this.harness.getBindCount(),
+                this.harness.getBindCount() <= (long) (frames + 1) * FastScrollHarness.ROWS_PER_SCREEN);
+    }
+
+    @Test
+    public void scrollbarRecomputeReadsHeightsFromIndex() {
+        FastScrollRecyclerView recyclerView = this.harness.recyclerView;
+        this.harness.resetCounters();
+        for (int i = 0; i < 20; ++i) {
+            recyclerView.scrollBy(0, 3 * FastScrollHarness.ROW_HEIGHT);
+            this.harness.frame();
+        }
+
+        assertTrue("scrollbar updates " + recyclerView.getScrollbarUpdateCount(),
+                recyclerView.getScrollbarUpdateCount() >= 20);
+        assertEquals(0, recyclerView.getHeightRequestCount());
+    }
+
+        @Test
+    public void reenablingRedrawsScrollbarOnce() {
+        FastScrollRecyclerView recyclerView = this.harness.recyclerView;
+        recyclerView.setFastScrollEnabled(false);
+        recyclerView.scrollBy(0, 5 * FastScrollHarness.ROW_HEIGHT);
+        this.harness.frame();
+        this.harness.resetCounters();
+        shadowOf(recyclerView).clearWasInvalidated();
+
+        recyclerView.setFastScrollEnabled(true);
+        assertTrue(shadowOf(recyclerView).wasInvalidated());
+        this.harness.frames(3);
+        assertEquals(1, recyclerView.getScrollbarUpdateCount());
+    }
+
+        @Test
+    public void scrubBackOverVisitedSectionsHitsNameCache() {
+        this.harness.startThumbDrag();
+        this.harness.dragThumbTo(1f, 60, 2);
+        this.harness.resetCounters();
+        this.harness.dragThumbTo(0f, 45, 2);
+        this.harness.endThumbDrag();
+
+        // Only frames landing between two sections explored on the way down reach the adapter
+        int requests = this.harness.recyclerView.getSectionNameRequestCount();
+        assertTrue("section names " + requests, requests <= 26);
+    }
+
+    @Test
+    public void flingStaysWithinFrameBudgets() {
+        int frames = 60;
+        this.harness.resetCounters();
+        this.harness.recyclerView.fling(0, 12000);
+        this.harness.frames(frames);
+        FastScrollRecyclerView recyclerView = this.harness.recyclerView;
+
+        assertEquals(0, recyclerView.getHeightRequestCount());
+        assertEquals(0, recyclerView.getSectionNameRequestCount());
+        // Flinging scrolls children in place, it never needs a full layout pass per frame
+        assertTrue("layout passes " + recyclerView.getLayoutPassCount(),
+                recyclerView.getLayoutPassCount() <= frames);
+        assertTrue("binds " + this.harness.getBindCount(),
+                this.harness.getBindCount() <= (long) frames * FastScrollHarness.ROWS_PER_SCREEN);
+    }
+
+    @Test
+    public void submitWithChangesOnlyMeasuresChangedRows() {
+        List<FastScrollHarness.Item> changed = new ArrayList<>(this.items);
+        for (int position = 1; position <= 3; ++position) {
+            changed.set(position, changed.get(position).changed());
+        }
+        this.harness.resetCounters();
+        this.harness.submit(changed);
+
+        assertTrue("heights " + this.harness.recyclerView.getHeightRequestCount(),
+                this.harness.recyclerView.getHeightRequestCount() <= 3);
+        assertTrue("binds " + this.harness.getBindCount(), this.harness.getBindCount() <= 3);
+        assertTrue(this.harness.recyclerView.getLayoutPassCount() <= 2);
+    }
+
+    @Test
+    public void mixedSubmitOnlyMeasuresInsertedAndChangedRows() {
+        List<FastScrollHarness.Item> mixed = new ArrayList<>(this.items);
+        // Remove, change, insert and move in one diff
+        mixed.subList(10, 20).clear();
+        mixed.set(2, mixed.get(2).changed());
+        for (int i = 0; i < 5; ++i) {
+            mixed.add(1, new FastScrollHarness.Item("A", this.items.size() + i, 0, false));
+        }
+        mixed.add(3000, mixed.remove(500));
+        this.harness.resetCounters();
+        this.harness.submit(mixed);
+
+        assertTrue("heights " + this.harness.recyclerView.getHeightRequestCount(),
+                this.harness.recyclerView.getHeightRequestCount() <= 5 + 1);
+        assertTrue(this.harness.recyclerView.getLayoutPassCount() <= 2);
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Al Shakib (shakib@alshakib.dev)
+ *
+ * This file is part of Recycler View Compat
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.alshakib.rvcompat.view;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class FastScrollGeometryTest {
+
+    @Test
+    public void availableHeightsExcludePaddingAndThumb() {
+        assertEquals(1100, FastScrollGeometry.getAvailableScrollHeight(2000, 50, 50, 1000));
+        assertEquals(800, FastScrollGeometry.getAvailableScrollBarHeight(1000, 50, 50, 100));
+    }
+
+    @Test
+    public void thumbTracksScrollFraction() {
+        assertEquals(0, FastScrollGeometry.calculateThumbY(0, 0, 1000, 500, 0, 0, false));
+        assertEquals(250, FastScrollGeometry.calculateThumbY(500, 0, 1000, 500, 0, 0, false));
+        assertEquals(500, FastScrollGeometry.calculateThumbY(1000, 0, 1000, 500, 0, 0, false));
+        // Scrolling past the end keeps the thumb at the bottom
+        assertEquals(500, FastScrollGeometry.calculateThumbY(5000, 0, 1000, 500, 0, 0, false));
+    }
+
+    @Test
+    public void thumbAccountsForFirstRowOffsetAndPadding() {
+        // Padding shifts both the scroll position and the track, the first row offset pulls the thumb back
+        assertEquals(20 + 250, FastScrollGeometry.calculateThumbY(500, 20, 1000, 500, 20, 0, false));
+        assertEquals(20 + 240, FastScrollGeometry.calculateThumbY(500, 40, 1000, 500, 20, 0, false));
+    }
+
+    @Test
+    public void reversedThumbMirrorsAroundTrack() {
+        assertEquals(750, FastScrollGeometry.calculateThumbY(0, 0, 1000, 500, 0, 0, true));
+        assertEquals(250, FastScrollGeometry.calculateThumbY(1000, 0, 1000, 500, 0, 0, true));
+        assertEquals(260, FastScrollGeometry.calculateThumbY(1000, 0, 1000, 500, 0, 10, true));
+    }
+
+    @Test
+    public void itemPositionUsesHeightIndex() {
+        FenwickHeightIndex index = new FenwickHeightIndex();
+        index.reset(4);
+        index.setHeight(0, 100);
+        index.setHeight(1, 100);
+        index.setHeight(2, 700);
+        index.setHeight(3, 100);
+        assertEquals(0f, FastScrollGeometry.findItemPosition(index, 0f, 4), 0f);
+        assertEquals(2f, FastScrollGeometry.findItemPosition(index, 0.5f, 4), 0f);
+        assertEquals(3f, FastScrollGeometry.findItemPosition(index, 1f, 4), 0f);
+    }
+
+    @Test
+    public void itemPositionFallsBackToUniformRows() {
+        assertEquals(50f, FastScrollGeometry.findItemPosition(null, 0.5f, 100), 0f);
+        assertEquals(50f, FastScrollGeometry.findItemPosition(new FenwickHeightIndex(), 0.5f, 100), 0f);
+    }
+
+    @Test
+    public void rowsRoundUpForPartialRows() {
+        assertEquals(0, FastScrollGeometry.getRowCount(0, 3));
+        assertEquals(4, FastScrollGeometry.getRowCount(10, 3));
+        assertEquals(3, FastScrollGeometry.getRowForPosition(9, 3));
+        assertEquals(-1, FastScrollGeometry.getRowForPosition(-1, 3));
+    }
+}
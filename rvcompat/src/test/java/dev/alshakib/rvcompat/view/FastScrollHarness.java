@@ -0,0 +1,268 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Al Shakib (shakib@alshakib.dev)
+ *
+ * This file is part of Recycler View Compat
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.alshakib.rvcompat.view;
+
+import android.app.Activity;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import org.robolectric.Robolectric;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import dev.alshakib.rvcompat.adapter.AdapterTimings;
+import dev.alshakib.rvcompat.adapter.ListAdapterCompat;
+import dev.alshakib.rvcompat.viewholder.ViewHolderCompat;
+
+import static org.junit.Assert.fail;
+import static org.robolectric.Shadows.shadowOf;
+
+// Drives a FastScrollRecyclerView frame by frame: every frame advances the main looper by one vsync
+// interval, which runs touch coalescing, flings and layout, then draws the list once
+final class FastScrollHarness {
+    static final int WIDTH = 480;
+    static final int HEIGHT = 800;
+    static final int FRAME_MILLIS = 16;
+    static final int HEADER_HEIGHT = 60;
+    static final int ROW_HEIGHT = 100;
+    // Rows that fit on screen plus one partially visible at either end
+    static final int ROWS_PER_SCREEN = HEIGHT / HEADER_HEIGHT + 2;
+
+    private static final long COMMIT_TIMEOUT_MILLIS = 5000;
+
+    final Activity activity;
+    final FastScrollRecyclerView recyclerView;
+    final SyntheticAdapter adapter;
+
+    private final Canvas canvas;
+    private long dragDownTime;
+    private int dragY;
+
+    FastScrollHarness(@NonNull List<Item> items) {
+        this.activity = Robolectric.buildActivity(Activity.class).setup().get();
+        this.recyclerView = new FastScrollRecyclerView(this.activity);
+        // Inflation adds the touch listener in onFinishInflate, a list built in code has to do it itself
+        this.recyclerView.addOnItemTouchListener(this.recyclerView);
+        this.recyclerView.setLayoutManager(new LinearLayoutManager(this.activity));
+        this.recyclerView.setItemAnimator(null);
+        this.recyclerView.setFastScrollFrameCoalescingEnabled(true);
+        // alphabet() keeps every section in one block
+        this.recyclerView.setContiguousSectionNamesEnabled(true);
+        this.adapter = new SyntheticAdapter();
+        this.adapter.setAdapterTimingsEnabled(true);
+        this.recyclerView.setAdapter(this.adapter);
+        this.activity.setContentView(this.recyclerView, new FrameLayout.LayoutParams(WIDTH, HEIGHT));
+        this.canvas = new Canvas(Bitmap.createBitmap(WIDTH, HEIGHT, Bitmap.Config.ARGB_8888));
+        submit(items);
+    }
+
+    void frame() {
+        shadowOf(Looper.getMainLooper()).idleFor(FRAME_MILLIS, TimeUnit.MILLISECONDS);
+        this.recyclerView.draw(this.canvas);
+    }
+
+    void frames(int count) {
+        for (int i = 0; i < count; ++i) {
+            frame();
+        }
+    }
+
+    void submit(@NonNull List<Item> items) {
+        final boolean[] isCommitted = new boolean[1];
+        this.adapter.submitList(items, new Runnable() {
+            @Override
+            public void run() {
+                isCommitted[0] = true;
+            }
+        });
+        // The diff runs on a background executor and commits through the main looper
+        long deadline = System.currentTimeMillis() + COMMIT_TIMEOUT_MILLIS;
+        while (!isCommitted[0]) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("submitList() did not commit within " + COMMIT_TIMEOUT_MILLIS + " ms");
+            }
+            shadowOf(Looper.getMainLooper()).idle();
+            Thread.yield();
+        }
+        frame();
+    }
+
+    // Grabs the thumb, which sits at the top while the list is scrolled to its start. The drag
+    // starts on the first move and scrubs relative to it, so that move stays on the down point
+    // and dragThumbTo() lands on the fraction it is given
+    void startThumbDrag() {
+        this.dragDownTime = SystemClock.uptimeMillis();
+        this.dragY = this.recyclerView.getThumbHeight() / 2;
+        dispatchThumbEvent(MotionEvent.ACTION_DOWN, this.dragY);
+        dispatchThumbEvent(MotionEvent.ACTION_MOVE, this.dragY);
+    }
+
+    // Moves the thumb to the given fraction of the track over a number of frames, with several
+    // touch samples per frame as a high rate touch panel delivers them
+    void dragThumbTo(float trackFraction, int frames, int samplesPerFrame) {
+        int track = this.recyclerView.getHeight() - this.recyclerView.getThumbHeight();
+        int targetY = this.recyclerView.getThumbHeight() / 2 + (int) (trackFraction * track);
+        int startY = this.dragY;
+        int samples = frames * samplesPerFrame;
+        for (int frame = 0; frame < frames; ++frame) {
+            for (int sample = 1; sample <= samplesPerFrame; ++sample) {
+                int step = frame * samplesPerFrame + sample;
+                this.dragY = startY + (targetY - startY) * step / samples;
+                dispatchThumbEvent(MotionEvent.ACTION_MOVE, this.dragY);
+            }
+            frame();
+        }
+    }
+
+    void endThumbDrag() {
+        dispatchThumbEvent(MotionEvent.ACTION_UP, this.dragY);
+        frame();
+    }
+
+    long getBindCount() {
+        AdapterTimings.Snapshot snapshot = this.adapter.getAdapterTimings().snapshot();
+        long count = 0;
+        for (int i = 0; i < snapshot.getViewTypeCount(); ++i) {
+            count += snapshot.getBindCount(i);
+        }
+        return count;
+    }
+
+    void resetCounters() {
+        this.recyclerView.resetPerformanceCounters();
+        this.adapter.getAdapterTimings().reset();
+    }
+
+    private void dispatchThumbEvent(int action, int y) {
+        int x = this.recyclerView.getWidth() - this.recyclerView.getScrollBarWidth() / 2;
+        MotionEvent event = MotionEvent.obtain(this.dragDownTime, SystemClock.uptimeMillis(), action, x, y, 0);
+        this.recyclerView.dispatchTouchEvent(event);
+        event.recycle();
+    }
+
+    // Alphabetical sections of equal size, each opened by a shorter header row
+    @NonNull
+    static List<Item> alphabet(int itemsPerSection) {
+        List<Item> items = new ArrayList<>();
+        for (char section = 'A'; section <= 'Z'; ++section) {
+            for (int i = 0; i < itemsPerSection; ++i) {
+                items.add(new Item(String.valueOf(section), items.size(), 0, i == 0));
+            }
+        }
+        return items;
+    }
+
+    static final class Item {
+        final String section;
+        final int id;
+        final int version;
+        final boolean isHeader;
+
+        Item(String section, int id, int version, boolean isHeader) {
+            this.section = section;
+            this.id = id;
+            this.version = version;
+            this.isHeader = isHeader;
+        }
+
+        @NonNull
+        Item changed() {
+            return new Item(this.section, this.id, this.version + 1, this.isHeader);
+        }
+    }
+
+    static final class ItemViewHolder extends ViewHolderCompat {
+        ItemViewHolder(@NonNull View view) {
+            super(view);
+        }
+    }
+
+    static final class SyntheticAdapter extends ListAdapterCompat<Item, ItemViewHolder>
+            implements FastScrollRecyclerView.OnSectionName,
+            FastScrollRecyclerView.OnViewHolderHeight<ItemViewHolder> {
+        static final int TYPE_ROW = 0;
+        static final int TYPE_HEADER = 1;
+
+        SyntheticAdapter() {
+            super(new DiffUtil.ItemCallback<Item>() {
+                @Override
+                public boolean areItemsTheSame(@NonNull Item oldItem, @NonNull Item newItem) {
+                    return oldItem.id == newItem.id;
+                }
+
+                @Override
+                public boolean areContentsTheSame(@NonNull Item oldItem, @NonNull Item newItem) {
+                    return oldItem.version == newItem.version;
+                }
+            });
+        }
+
+        @Override
+        public int getItemViewType(int position) {
+            return getItem(position).isHeader ? TYPE_HEADER : TYPE_ROW;
+        }
+
+        @NonNull
+        @Override
+        public ItemViewHolder onCreateViewHolderCompat(@NonNull ViewGroup parent, int viewType) {
+            View view = new View(parent.getContext());
+            view.setLayoutParams(new RecyclerView.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT,
+                    viewType == TYPE_HEADER ? HEADER_HEIGHT : ROW_HEIGHT));
+            return new ItemViewHolder(view);
+        }
+
+        @Override
+        public void onBindViewHolderCompat(@NonNull ItemViewHolder holder, int position) {
+            holder.getView().setTag(getItem(position));
+        }
+
+        @Override
+        public String getSectionName(int position) {
+            return getItem(position).section;
+        }
+
+        @Override
+        public int getViewHolderHeight(RecyclerView recyclerView, @Nullable ItemViewHolder viewHolder, int viewType) {
+            return viewType == TYPE_HEADER ? HEADER_HEIGHT : ROW_HEIGHT;
+        }
+    }
+}
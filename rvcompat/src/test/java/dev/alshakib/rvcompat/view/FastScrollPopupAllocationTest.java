@@ -0,0 +1,133 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Al Shakib (shakib@alshakib.dev)
+ *
+ * This file is part of Recycler View Compat
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.alshakib.rvcompat.view;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.RectF;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+// The fast scroller draws on every frame of a drag, so its drawing must not allocate. The canvas
+// is a plain subclass, which keeps Robolectric's recording canvas shadow out of the count
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class FastScrollPopupAllocationTest {
+    private static final int DRAW_COUNT = 1000;
+
+    private FastScrollHarness harness;
+    private DiscardingCanvas canvas;
+
+    @Before
+    public void setUp() {
+        assumeTrue(AllocationCounter.isSupported());
+        this.harness = new FastScrollHarness(FastScrollHarness.alphabet(400));
+        this.canvas = new DiscardingCanvas();
+    }
+
+    @Test
+    public void drawingPopupDoesNotAllocate() {
+        showPopup();
+        assertDrawsWithoutAllocating();
+    }
+
+    @Test
+    public void drawingCachedBubbleDoesNotAllocate() {
+        this.harness.recyclerView.setPopupBubbleCacheEnabled(true);
+        showPopup();
+        assertDrawsWithoutAllocating();
+    }
+
+    private void showPopup() {
+        this.harness.startThumbDrag();
+        this.harness.dragThumbTo(0.5f, 10, 2);
+        // Let the popup fade in completely, the drag stays active so it remains on screen
+        this.harness.frames(25);
+        this.harness.recyclerView.drawFastScroller(this.canvas);
+        assertTrue("the popup was not drawn", this.canvas.popupDrawCount > 0);
+    }
+
+    private void assertDrawsWithoutAllocating() {
+        final FastScrollRecyclerView recyclerView = this.harness.recyclerView;
+        Runnable draws = new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < DRAW_COUNT; ++i) {
+                    recyclerView.drawFastScroller(FastScrollPopupAllocationTest.this.canvas);
+                }
+            }
+        };
+        // Warm up first, caches fill and lookups get compiled
+        draws.run();
+        long allocatedBytes = AllocationCounter.measure(draws);
+        assertTrue(allocatedBytes + " bytes allocated over " + DRAW_COUNT + " draws", allocatedBytes <= 0);
+    }
+
+    private static final class DiscardingCanvas extends Canvas {
+        private int popupDrawCount;
+
+        @Override
+        public int save() {
+            return 1;
+        }
+
+        @Override
+        public void restoreToCount(int saveCount) { }
+
+        @Override
+        public void translate(float dx, float dy) { }
+
+        @Override
+        public void drawRoundRect(@NonNull RectF rect, float rx, float ry, @NonNull Paint paint) { }
+
+        @Override
+        public void drawPath(@NonNull Path path, @NonNull Paint paint) {
+            ++this.popupDrawCount;
+        }
+
+        @Override
+        public void drawText(@NonNull String text, float x, float y, @NonNull Paint paint) { }
+
+        @Override
+        public void drawBitmap(@NonNull Bitmap bitmap, float left, float top, @Nullable Paint paint) {
+            ++this.popupDrawCount;
+        }
+    }
+}
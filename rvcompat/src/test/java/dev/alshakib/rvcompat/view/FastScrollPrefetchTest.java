@@ -0,0 +1,118 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Al Shakib (shakib@alshakib.dev)
+ *
+ * This file is part of Recycler View Compat
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.alshakib.rvcompat.view;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import dev.alshakib.rvcompat.pool.SharedRecycledViewPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+// The prefetcher may raise pool maximums during a drag, they must be back once the jump has landed.
+// It must also give up on a pool that drops its holders instead of creating them forever
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class FastScrollPrefetchTest {
+    private static final int ITEMS_PER_SECTION = 400;
+
+    private FastScrollHarness harness;
+    private RecyclerView.RecycledViewPool recycledViewPool;
+
+    @Before
+    public void setUp() {
+        this.harness = new FastScrollHarness(FastScrollHarness.alphabet(ITEMS_PER_SECTION));
+        this.harness.recyclerView.setFastScrollPrefetchEnabled(true);
+        this.recycledViewPool = this.harness.recyclerView.getRecycledViewPool();
+    }
+
+    @Test
+    public void landingRestoresLowerMaximum() {
+        this.recycledViewPool.setMaxRecycledViews(FastScrollHarness.SyntheticAdapter.TYPE_ROW, 2);
+        dragAcrossList();
+        assertEquals(2, fillPool(10));
+    }
+
+    @Test
+    public void landingKeepsHigherMaximum() {
+        this.recycledViewPool.setMaxRecycledViews(FastScrollHarness.SyntheticAdapter.TYPE_ROW, 40);
+        dragAcrossList();
+        assertEquals(40, fillPool(50));
+    }
+
+    @Test
+    public void everyDragIsOnePrediction() {
+        dragAcrossList();
+        dragAcrossList();
+        assertEquals(2, this.harness.recyclerView.getPrefetchPredictionCount());
+        assertTrue(this.harness.recyclerView.getPrefetchHitCount() <= 2);
+    }
+
+    @Test
+    public void heldThumbIsPredictedHit() {
+        this.harness.startThumbDrag();
+        this.harness.dragThumbTo(0.5f, 10, 4);
+        // Samples at a resting thumb halve the velocity, so the prediction settles on the landing
+        this.harness.dragThumbTo(0.5f, 12, 1);
+        this.harness.endThumbDrag();
+        assertEquals(1, this.harness.recyclerView.getPrefetchPredictionCount());
+        assertEquals(1, this.harness.recyclerView.getPrefetchHitCount());
+    }
+
+    @Test
+    public void refusedHoldersEndPrefetch() {
+        SharedRecycledViewPool sharedRecycledViewPool = new SharedRecycledViewPool(2);
+        this.harness.recyclerView.setRecycledViewPool(sharedRecycledViewPool);
+        dragAcrossList();
+        assertTrue(sharedRecycledViewPool.getTotalRecycledViewCount() <= 2);
+        assertTrue(this.harness.recyclerView.getPrefetchedViewHolderCount() <= 2);
+    }
+
+    private void dragAcrossList() {
+        this.harness.startThumbDrag();
+        this.harness.dragThumbTo(0.5f, 10, 4);
+        this.harness.dragThumbTo(0.9f, 10, 4);
+        this.harness.endThumbDrag();
+        this.harness.frames(3);
+    }
+
+    // Offers new row holders to the pool and returns how many it holds afterwards
+    private int fillPool(int count) {
+        for (int i = 0; i < count; ++i) {
+            this.recycledViewPool.putRecycledView(this.harness.adapter.createViewHolder(
+                    this.harness.recyclerView, FastScrollHarness.SyntheticAdapter.TYPE_ROW));
+        }
+        return this.recycledViewPool.getRecycledViewCount(FastScrollHarness.SyntheticAdapter.TYPE_ROW);
+    }
+}
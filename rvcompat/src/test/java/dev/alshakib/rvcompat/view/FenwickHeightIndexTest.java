@@ -0,0 +1,243 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Al Shakib (shakib@alshakib.dev)
+ *
+ * This file is part of Recycler View Compat
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.alshakib.rvcompat.view;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FenwickHeightIndexTest {
+
+    @Test
+    public void emptyIndexHasNoItems() {
+        FenwickHeightIndex index = new FenwickHeightIndex();
+        assertEquals(0, index.getTotalHeight());
+        assertEquals(0, index.getOffset(5));
+        assertEquals(-1, index.findIndex(0));
+    }
+
+    @Test
+    public void offsetsMatchPrefixSums() {
+        FenwickHeightIndex index = new FenwickHeightIndex();
+        index.reset(4);
+        index.setHeight(0, 10);
+        index.setHeight(1, 20);
+        index.setHeight(2, 0);
+        index.setHeight(3, 30);
+        assertEquals(0, index.getOffset(0));
+        assertEquals(10, index.getOffset(1));
+        assertEquals(30, index.getOffset(2));
+        assertEquals(30, index.getOffset(3));
+        assertEquals(60, index.getTotalHeight());
+        assertEquals(60, index.getOffset(100));
+        assertEquals(0, index.getOffset(-1));
+    }
+
+    @Test
+    public void findIndexSkipsEmptyItemsAndIncludesBottomEdge() {
+        FenwickHeightIndex index = new FenwickHeightIndex();
+        index.reset(4);
+        index.setHeight(0, 10);
+        index.setHeight(1, 20);
+        index.setHeight(3, 30);
+        assertEquals(0, index.findIndex(0));
+        assertEquals(0, index.findIndex(9));
+        assertEquals(1, index.findIndex(10));
+        assertEquals(3, index.findIndex(30));
+        assertEquals(3, index.findIndex(60));
+        assertEquals(-1, index.findIndex(61));
+        assertEquals(-1, index.findIndex(-1));
+    }
+
+    @Test
+    public void setHeightAfterQueryUpdatesTree() {
+        FenwickHeightIndex index = new FenwickHeightIndex();
+        index.reset(3);
+        index.setHeight(0, 10);
+        index.setHeight(1, 10);
+        index.setHeight(2, 10);
+        assertEquals(30, index.getTotalHeight());
+        index.setHeight(1, 25);
+        assertEquals(45, index.getTotalHeight());
+        assertEquals(35, index.getOffset(2));
+        assertEquals(1, index.findIndex(34));
+        assertEquals(2, index.findIndex(35));
+    }
+
+    @Test
+    public void randomEditsMatchModel() {
+        Random random = new Random(21);
+        FenwickHeightIndex index = new FenwickHeightIndex();
+        List<Integer> model = new ArrayList<>();
+        for (int round = 0; round < 2000; ++round) {
+            int operation = random.nextInt(5);
+            if (operation == 0 || model.isEmpty()) {
+                int start = random.nextInt(model.size() + 1);
+                int count = 1 + random.nextInt(8);
+                index.insert(start, count);
+                for (int i = 0; i < count; ++i) {
+                    model.add(start, 0);
+                }
+            } else if (operation == 1) {
+                int start = random.nextInt(model.size());
+                int count = 1 + random.nextInt(model.size() - start);
+                index.remove(start, count);
+                model.subList(start, start + count).clear();
+            } else if (operation == 2) {
+                int count = 1 + random.nextInt(Math.min(4, model.size()));
+                int from = random.nextInt(model.size() - count + 1);
+                int to = random.nextInt(model.size() - count + 1);
+                index.move(from, to, count);
+                List<Integer> moved = new ArrayList<>(model.subList(from, from + count));
+                model.subList(from, from + count).clear();
+                model.addAll(to, moved);
+            } else {
+                int position = random.nextInt(model.size());
+                int height = random.nextInt(4) == 0 ? 0 : random.nextInt(200);
+                index.setHeight(position, height);
+                model.set(position, height);
+            }
+            assertMatches(model, index);
+        }
+    }
+
+    @Test
+    public void mixedUpdatesOnlyMeasureDirtyRows() {
+        Random random = new Random(3);
+        for (int round = 0; round < 500; ++round) {
+            // Each row carries its real height and whether the index still has to measure it
+            List<int[]> model = new ArrayList<>();
+            FenwickHeightIndex index = new FenwickHeightIndex();
+            int size = 1 + random.nextInt(64);
+            index.reset(size);
+            for (int i = 0; i < size; ++i) {
+                model.add(new int[]{random.nextInt(200), 1});
+            }
+            assertEquals(size, remeasure(model, index));
+
+            // One dispatch of a mixed diff: nothing is measured until it ends
+            for (int update = 0; update < 6; ++update) {
+                int operation = random.nextInt(4);
+                if (operation == 0 || model.isEmpty()) {
+                    int start = random.nextInt(model.size() + 1);
+                    int count = 1 + random.nextInt(4);
+                    index.insert(start, count);
+                    for (int i = 0; i < count; ++i) {
+                        model.add(start, new int[]{random.nextInt(200), 1});
+                    }
+                } else if (operation == 1) {
+                    int start = random.nextInt(model.size());
+                    int count = 1 + random.nextInt(Math.min(4, model.size() - start));
+                    index.remove(start, count);
+                    model.subList(start, start + count).clear();
+                } else if (operation == 2) {
+                    int count = 1 + random.nextInt(Math.min(3, model.size()));
+                    int from = random.nextInt(model.size() - count + 1);
+                    int to = random.nextInt(model.size() - count + 1);
+                    index.move(from, to, count);
+                    List<int[]> moved = new ArrayList<>(model.subList(from, from + count));
+                    model.subList(from, from + count).clear();
+                    model.addAll(to, moved);
+                } else {
+                    int start = random.nextInt(model.size());
+                    int count = 1 + random.nextInt(Math.min(4, model.size() - start));
+                    index.markDirty(start, count);
+                    for (int i = start; i < start + count; ++i) {
+                        model.get(i)[0] = random.nextInt(200);
+                        model.get(i)[1] = 1;
+                    }
+                }
+            }
+
+            int dirtyCount = 0;
+            for (int i = 0; i < model.size(); ++i) {
+                assertEquals(model.get(i)[1] == 1, index.isDirty(i));
+                if (model.get(i)[1] == 1) {
+                    ++dirtyCount;
+                    assertTrue(i >= index.getDirtyStart() && i < index.getDirtyEnd());
+                }
+            }
+            assertEquals(dirtyCount, remeasure(model, index));
+            assertFalse(index.hasDirtyRange());
+            List<Integer> heights = new ArrayList<>();
+            for (int[] row : model) {
+                heights.add(row[0]);
+            }
+            assertMatches(heights, index);
+        }
+    }
+
+    // Mirrors the lazy measure pass of the view and returns how many rows it measured
+    private static int remeasure(List<int[]> model, FenwickHeightIndex index) {
+        int measured = 0;
+        for (int i = index.getDirtyStart(); i < index.getDirtyEnd(); ++i) {
+            if (index.isDirty(i)) {
+                index.setHeight(i, model.get(i)[0]);
+                model.get(i)[1] = 0;
+                ++measured;
+            }
+        }
+        index.clearDirtyRange();
+        return measured;
+    }
+
+    private static void assertMatches(List<Integer> model, FenwickHeightIndex index) {
+        assertEquals(model.size(), index.size());
+        int offset = 0;
+        for (int i = 0; i < model.size(); ++i) {
+            assertEquals((int) model.get(i), index.getHeight(i));
+            assertEquals(offset, index.getOffset(i));
+            offset += model.get(i);
+        }
+        assertEquals(offset, index.getTotalHeight());
+        for (int probe = 0; probe <= offset + 1; probe += 7) {
+            assertEquals(findIndex(model, probe), index.findIndex(probe));
+        }
+        assertEquals(findIndex(model, offset), index.findIndex(offset));
+    }
+
+    static int findIndex(List<Integer> heights, int offset) {
+        if (offset < 0 || heights.isEmpty()) {
+            return -1;
+        }
+        int bottom = 0;
+        for (int i = 0; i < heights.size(); ++i) {
+            bottom += heights.get(i);
+            if (offset < bottom) {
+                return i;
+            }
+        }
+        return offset == bottom ? heights.size() - 1 : -1;
+    }
+}
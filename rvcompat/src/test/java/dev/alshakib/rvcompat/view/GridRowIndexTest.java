@@ -0,0 +1,134 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Al Shakib (shakib@alshakib.dev)
+ *
+ * This file is part of Recycler View Compat
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.alshakib.rvcompat.view;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class GridRowIndexTest {
+    private static final GridRowIndex.SpanSizes SINGLE_SPAN = new GridRowIndex.SpanSizes() {
+        @Override
+        public int getSpanSize(int position) {
+            return 1;
+        }
+    };
+
+    @Test
+    public void uniformSpansFillRowsEvenly() {
+        GridRowIndex index = new GridRowIndex();
+        index.extend(10, 3, SINGLE_SPAN);
+        assertEquals(4, index.getRowCount());
+        assertEquals(0, index.getRow(2));
+        assertEquals(1, index.getRow(3));
+        assertEquals(3, index.getRow(9));
+        assertEquals(9, index.getFirstPosition(3));
+        assertEquals(9, index.getFirstPosition(10));
+    }
+
+    @Test
+    public void fullSpanItemsStartNewRows() {
+        GridRowIndex index = new GridRowIndex();
+        // Headers span the whole row, everything else one span
+        index.extend(8, 3, new GridRowIndex.SpanSizes() {
+            @Override
+            public int getSpanSize(int position) {
+                return position == 0 || position == 4 ? 3 : 1;
+            }
+        });
+        // [0] [1 2 3] [4] [5 6 7]
+        assertEquals(4, index.getRowCount());
+        assertEquals(0, index.getRow(0));
+        assertEquals(1, index.getRow(3));
+        assertEquals(2, index.getRow(4));
+        assertEquals(3, index.getRow(7));
+    }
+
+    @Test
+    public void extendRelaysTheLastPartialRow() {
+        GridRowIndex index = new GridRowIndex();
+        index.extend(4, 3, SINGLE_SPAN);
+        assertEquals(2, index.getRowCount());
+        index.extend(6, 3, SINGLE_SPAN);
+        assertEquals(2, index.getRowCount());
+        assertEquals(1, index.getRow(5));
+    }
+
+    @Test
+    public void spanCountChangeRebuilds() {
+        GridRowIndex index = new GridRowIndex();
+        index.extend(12, 3, SINGLE_SPAN);
+        index.extend(12, 4, SINGLE_SPAN);
+        assertEquals(4, index.getSpanCount());
+        assertEquals(3, index.getRowCount());
+    }
+
+    @Test
+    public void truncateThenExtendMatchesFreshBuild() {
+        Random random = new Random(11);
+        for (int round = 0; round < 200; ++round) {
+            final int[] spanSizes = new int[1 + random.nextInt(300)];
+            int spanCount = 1 + random.nextInt(5);
+            for (int i = 0; i < spanSizes.length; ++i) {
+                spanSizes[i] = random.nextInt(5) == 0 ? spanCount : 1 + random.nextInt(spanCount);
+            }
+            GridRowIndex.SpanSizes lookup = new GridRowIndex.SpanSizes() {
+                @Override
+                public int getSpanSize(int position) {
+                    return spanSizes[position];
+                }
+            };
+            GridRowIndex index = new GridRowIndex();
+            index.extend(spanSizes.length, spanCount, lookup);
+            assertMatches(spanSizes, spanCount, index);
+
+            int position = random.nextInt(spanSizes.length);
+            spanSizes[position] = 1 + random.nextInt(spanCount);
+            index.truncate(position);
+            index.extend(spanSizes.length, spanCount, lookup);
+            assertMatches(spanSizes, spanCount, index);
+        }
+    }
+
+    private static void assertMatches(int[] spanSizes, int spanCount, GridRowIndex index) {
+        int row = -1;
+        int spanIndex = spanCount;
+        for (int i = 0; i < spanSizes.length; ++i) {
+            if (spanIndex + spanSizes[i] > spanCount) {
+                ++row;
+                spanIndex = 0;
+                assertEquals(i, index.getFirstPosition(row));
+            }
+            spanIndex += spanSizes[i];
+            assertEquals(row, index.getRow(i));
+        }
+        assertEquals(row + 1, index.getRowCount());
+    }
+}
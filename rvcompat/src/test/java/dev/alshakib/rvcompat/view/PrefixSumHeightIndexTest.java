@@ -0,0 +1,97 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Al Shakib (shakib@alshakib.dev)
+ *
+ * This file is part of Recycler View Compat
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.alshakib.rvcompat.view;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class PrefixSumHeightIndexTest {
+
+    @Test
+    public void buildAcrossChunksMatchesModel() {
+        final Random random = new Random(3);
+        final List<Integer> model = new ArrayList<>();
+        // Spans several chunks with a partial one at the end
+        for (int i = 0; i < 4096 * 5 + 123; ++i) {
+            model.add(random.nextInt(200));
+        }
+        PrefixSumHeightIndex index = PrefixSumHeightIndex.build(model.size(),
+                new PrefixSumHeightIndex.Heights() {
+                    @Override
+                    public int getHeight(int position) {
+                        return model.get(position);
+                    }
+                }, ForkJoinPool.commonPool(), new AtomicBoolean());
+
+        assertEquals(model.size(), index.size());
+        int offset = 0;
+        for (int i = 0; i < model.size(); ++i) {
+            assertEquals((int) model.get(i), index.getHeight(i));
+            assertEquals(offset, index.getOffset(i));
+            offset += model.get(i);
+        }
+        assertEquals(offset, index.getTotalHeight());
+        for (int probe = -1; probe <= offset + 1; probe += 97) {
+            assertEquals(FenwickHeightIndexTest.findIndex(model, probe), index.findIndex(probe));
+        }
+        assertEquals(model.size() - 1, index.findIndex(offset));
+    }
+
+    @Test
+    public void emptyBuildHasNoItems() {
+        PrefixSumHeightIndex index = PrefixSumHeightIndex.build(0, new PrefixSumHeightIndex.Heights() {
+            @Override
+            public int getHeight(int position) {
+                throw new AssertionError();
+            }
+        }, ForkJoinPool.commonPool(), new AtomicBoolean());
+        assertEquals(0, index.getTotalHeight());
+        assertEquals(-1, index.findIndex(0));
+    }
+
+    @Test
+    public void cancelledBuildReturnsNull() {
+        final AtomicBoolean isCancelled = new AtomicBoolean();
+        PrefixSumHeightIndex index = PrefixSumHeightIndex.build(4096 * 4, new PrefixSumHeightIndex.Heights() {
+            @Override
+            public int getHeight(int position) {
+                isCancelled.set(true);
+                return 1;
+            }
+        }, ForkJoinPool.commonPool(), isCancelled);
+        assertNull(index);
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Al Shakib (shakib@alshakib.dev)
+ *
+ * This file is part of Recycler View Compat
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.alshakib.rvcompat.view;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SectionNameCacheTest {
+    private static final int SECTION_COUNT = 26;
+    private static final int SECTION_SIZE = 400;
+
+    @Test
+    public void adjacentPositionsMergeByDefault() {
+        SectionNameCache cache = new SectionNameCache(4);
+        cache.put(10, "A");
+        cache.put(12, "A");
+        assertEquals(2, cache.size());
+        cache.put(11, "A");
+        assertEquals(1, cache.size());
+        cache.put(13, "A");
+        assertEquals(1, cache.size());
+        assertEquals("A", cache.get(13));
+        assertNull(cache.get(14));
+    }
+
+    @Test
+    public void sameNameOnBothEndsKeepsTheGapUnknownByDefault() {
+        SectionNameCache cache = new SectionNameCache(4);
+        cache.put(10, "A");
+        cache.put(50, "A");
+        assertNull(cache.get(30));
+        assertEquals(2, cache.size());
+    }
+
+    // Names repeating across the list, as in a source cycling through a fixed set of names
+    @Test
+    public void repeatingNamesResolveCorrectlyByDefault() {
+        SectionNameCache cache = new SectionNameCache(32);
+        for (int round = 0; round < 4; ++round) {
+            for (int position = round; position < 2000; position += 13) {
+                String name = cache.get(position);
+                if (name == null) {
+                    name = cyclicName(position);
+                    cache.put(position, name);
+                }
+                assertEquals(cyclicName(position), name);
+            }
+        }
+    }
+
+    @Test
+    public void sameNameOnBothEndsFillsTheGap() {
+        SectionNameCache cache = new SectionNameCache(4);
+        cache.setMergingAcrossGaps(true);
+        cache.put(10, "A");
+        cache.put(50, "A");
+        assertEquals("A", cache.get(30));
+        assertEquals(1, cache.size());
+        assertNull(cache.get(51));
+    }
+
+    @Test
+    public void differentNamesKeepTheGapUnknown() {
+        SectionNameCache cache = new SectionNameCache(4);
+        cache.setMergingAcrossGaps(true);
+        cache.put(10, "A");
+        cache.put(50, "B");
+        assertNull(cache.get(30));
+        cache.put(30, "A");
+        assertEquals("A", cache.get(20));
+        assertNull(cache.get(40));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void fillingTheLastGapMergesBothNeighbours() {
+        SectionNameCache cache = new SectionNameCache(4);
+        cache.setMergingAcrossGaps(true);
+        cache.put(10, "A");
+        cache.put(50, "B");
+        cache.put(90, "B");
+        cache.put(20, "C");
+        cache.put(70, "B");
+        assertEquals(3, cache.size());
+        assertEquals("B", cache.get(60));
+        assertEquals("B", cache.get(80));
+    }
+
+    @Test
+    public void evictsOldestRangeWhenFull() {
+        SectionNameCache cache = new SectionNameCache(2);
+        cache.put(0, "A");
+        cache.put(10, "B");
+        cache.put(20, "C");
+        assertNull(cache.get(0));
+        assertEquals("B", cache.get(10));
+        assertEquals("C", cache.get(20));
+    }
+
+    // Thumb scrub over an A-Z list: down the whole list, then back up on different positions
+    @Test
+    public void alphabetScrubHitsCacheOnTheWayBack() {
+        SectionNameCache cache = new SectionNameCache(32);
+        cache.setMergingAcrossGaps(true);
+        int itemCount = SECTION_COUNT * SECTION_SIZE;
+        int[] requests = new int[1];
+
+        int frames = 0;
+        for (int position = 0; position < itemCount; position += 37, ++frames) {
+            assertEquals(sectionName(position), resolve(cache, position, requests));
+        }
+        int forwardRequests = requests[0];
+
+        int returnFrames = 0;
+        requests[0] = 0;
+        for (int position = itemCount - 5; position >= 0; position -= 53, ++returnFrames) {
+            assertEquals(sectionName(position), resolve(cache, position, requests));
+        }
+        int returnRequests = requests[0];
+
+        // Every section collapses into a single range
+        assertEquals(SECTION_COUNT, cache.size());
+        assertEquals(frames, forwardRequests);
+        // Only positions in the unexplored gap between two sections still reach the adapter
+        float returnHitRate = 1f - (float) returnRequests / returnFrames;
+        assertTrue("return hit rate " + returnHitRate, returnHitRate > 0.85f);
+        assertTrue(returnRequests <= 2 * SECTION_COUNT);
+    }
+
+    // Jittery drag around the same spot, the common case while reading the popup
+    @Test
+    public void jitterAroundOneSpotHitsCache() {
+        SectionNameCache cache = new SectionNameCache(32);
+        cache.setMergingAcrossGaps(true);
+        int[] requests = new int[1];
+        int frames = 0;
+        for (int round = 0; round < 50; ++round) {
+            for (int delta = -30; delta <= 30; delta += 7, ++frames) {
+                int position = 5 * SECTION_SIZE + SECTION_SIZE / 2 + delta + round % 3;
+                assertEquals(sectionName(position), resolve(cache, position, requests));
+            }
+        }
+        // The first sweep explores 9 positions, later rounds only miss past its outermost ends
+        assertTrue("requests " + requests[0] + " of " + frames, requests[0] <= 9 + 2);
+    }
+
+    private static String resolve(SectionNameCache cache, int position, int[] requests) {
+        String name = cache.get(position);
+        if (name == null) {
+            ++requests[0];
+            name = sectionName(position);
+            cache.put(position, name);
+        }
+        return name;
+    }
+
+    private static String cyclicName(int position) {
+        return String.valueOf((char) ('A' + position % SECTION_COUNT));
+    }
+
+    private static String sectionName(int position) {
+        return String.valueOf((char) ('A' + position / SECTION_SIZE));
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Al Shakib (shakib@alshakib.dev)
+ *
+ * This file is part of Recycler View Compat
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.alshakib.rvcompat.view;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ViewTypeHeightIndexTest {
+
+    @Test
+    public void consecutiveEqualHeightsShareARun() {
+        ViewTypeHeightIndex index = new ViewTypeHeightIndex();
+        for (int i = 0; i < 5; ++i) {
+            index.append(48);
+        }
+        index.append(96);
+        index.append(48);
+        assertEquals(7, index.size());
+        assertEquals(0, index.getOffset(0));
+        assertEquals(192, index.getOffset(4));
+        assertEquals(240, index.getOffset(5));
+        assertEquals(336, index.getOffset(6));
+        assertEquals(384, index.getTotalHeight());
+        assertEquals(384, index.getOffset(100));
+        assertEquals(4, index.findIndex(239));
+        assertEquals(5, index.findIndex(240));
+        assertEquals(6, index.findIndex(384));
+        assertEquals(-1, index.findIndex(385));
+    }
+
+    @Test
+    public void clearForgetsEveryRun() {
+        ViewTypeHeightIndex index = new ViewTypeHeightIndex();
+        index.append(10);
+        index.append(20);
+        index.clear();
+        assertEquals(0, index.size());
+        assertEquals(0, index.getTotalHeight());
+        assertEquals(-1, index.findIndex(0));
+    }
+
+    @Test
+    public void patchedItemsWaitForMeasure() {
+        ViewTypeHeightIndex index = new ViewTypeHeightIndex();
+        for (int i = 0; i < 10; ++i) {
+            index.append(48);
+        }
+        index.insert(4, 2);
+        index.markDirty(0, 1);
+        assertTrue(index.hasUnmeasured());
+        final List<Integer> measured = new ArrayList<>();
+        index.measure(new PrefixSumHeightIndex.Heights() {
+            @Override
+            public int getHeight(int position) {
+                measured.add(position);
+                return 96;
+            }
+        });
+        // Only the changed and inserted items are measured again
+        assertEquals(Arrays.asList(0, 4, 5), measured);
+        assertFalse(index.hasUnmeasured());
+        assertEquals(12, index.size());
+        assertEquals(96, index.getOffset(1));
+        assertEquals(96 + 3 * 48, index.getOffset(4));
+        assertEquals(3 * 96 + 9 * 48, index.getTotalHeight());
+    }
+
+    @Test
+    public void randomPatchesMatchModel() {
+        Random random = new Random(11);
+        final int[] typeHeights = {48, 72, 96};
+        for (int round = 0; round < 200; ++round) {
+            ViewTypeHeightIndex index = new ViewTypeHeightIndex();
+            final List<Integer> model = new ArrayList<>();
+            int size = random.nextInt(60);
+            for (int i = 0; i < size; ++i) {
+                int height = typeHeights[random.nextInt(random.nextBoolean() ? 1 : typeHeights.length)];
+                index.append(height);
+                model.add(height);
+            }
+            for (int step = 0; step < 20; ++step) {
+                int operation = random.nextInt(4);
+                if (operation == 0) {
+                    int start = random.nextInt(model.size() + 1);
+                    int count = random.nextInt(5);
+                    index.insert(start, count);
+                    for (int i = 0; i < count; ++i) {
+                        model.add(start, null);
+                    }
+                } else if (model.isEmpty()) {
+                    continue;
+                } else if (operation == 1) {
+                    int start = random.nextInt(model.size());
+                    int count = 1 + random.nextInt(Math.min(4, model.size() - start));
+                    index.remove(start, count);
+                    model.subList(start, start + count).clear();
+                } else if (operation == 2) {
+                    int start = random.nextInt(model.size());
+                    int count = 1 + random.nextInt(Math.min(4, model.size() - start));
+                    index.markDirty(start, count);
+                    for (int i = start; i < start + count; ++i) {
+                        model.set(i, null);
+                    }
+                } else {
+                    int from = random.nextInt(model.size());
+                    int count = 1 + random.nextInt(Math.min(3, model.size() - from));
+                    int to = random.nextInt(model.size() - count + 1);
+                    index.move(from, to, count);
+                    List<Integer> moved = new ArrayList<>(model.subList(from, from + count));
+                    model.subList(from, from + count).clear();
+                    model.addAll(to, moved);
+                }
+                assertEquals(model.size(), index.size());
+                if (random.nextInt(3) == 0) {
+                    measure(index, model, typeHeights, random);
+                }
+            }
+            measure(index, model, typeHeights, random);
+            int offset = 0;
+            for (int i = 0; i < model.size(); ++i) {
+                assertEquals(offset, index.getOffset(i));
+                offset += model.get(i);
+            }
+            assertEquals(offset, index.getTotalHeight());
+            for (int probe = -1; probe <= offset + 1; probe += 7) {
+                assertEquals(FenwickHeightIndexTest.findIndex(model, probe), index.findIndex(probe));
+            }
+        }
+    }
+
+    private static void measure(ViewTypeHeightIndex index, final List<Integer> model, int[] typeHeights,
+                                Random random) {
+        for (int i = 0; i < model.size(); ++i) {
+            if (model.get(i) == null) {
+                model.set(i, typeHeights[random.nextInt(typeHeights.length)]);
+            }
+        }
+        index.measure(new PrefixSumHeightIndex.Heights() {
+            @Override
+            public int getHeight(int position) {
+                return model.get(position);
+            }
+        });
+        assertFalse(index.hasUnmeasured());
+    }
+
+        @Test
+    public void randomRunsMatchModel() {
+        Random random = new Random(7);
+        int[] typeHeights = {48, 72, 96, 144};
+        for (int round = 0; round < 50; ++round) {
+            ViewTypeHeightIndex index = new ViewTypeHeightIndex();
+            List<Integer> model = new ArrayList<>();
+            int size = random.nextInt(500);
+            for (int i = 0; i < size; ++i) {
+                int height = typeHeights[random.nextInt(random.nextBoolean() ? 1 : typeHeights.length)];
+                index.append(height);
+                model.add(height);
+            }
+            int offset = 0;
+            for (int i = 0; i < size; ++i) {
+                assertEquals(offset, index.getOffset(i));
+                offset += model.get(i);
+            }
+            assertEquals(offset, index.getTotalHeight());
+            for (int probe = -1; probe <= offset + 1; probe += 5) {
+                assertEquals(FenwickHeightIndexTest.findIndex(model, probe), index.findIndex(probe));
+            }
+        }
+    }
+}